@@ -1,5 +1,8 @@
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.IntConsumer;
 
 /**
  * Facade for computing an unweighted shortest path between two vertices in a graph. We represent
@@ -11,8 +14,10 @@ public final class BFS {
 
     /**
      * Returns a shortest path from {@code src} to {@code tgt} by executing a breadth-first search.
-     * If there are multiple shortest paths, this method may return any one of them. Please note, 
-     * you MUST use your ResizingDeque implementation as the BFS queue for this method. 
+     * If there are multiple shortest paths, this method may return any one of them. The BFS queue
+     * is an {@link IntDeque} and neighbors are visited with {@link Graph#forEachNeighbor}, so
+     * enqueuing a vertex does not box it and visiting one builds no neighbor set. The search
+     * stops as soon as {@code tgt} is discovered.
      * <p/>
      * Do NOT modify this method header.
      *
@@ -33,32 +38,307 @@ public final class BFS {
         if (src < 0 || src >= g.getSize() || tgt < 0 || tgt >= g.getSize()) {
             throw new IllegalArgumentException("src or tgt are not in the graph.");
         }
-        boolean[] discovered = new boolean[g.getSize()];
-        Integer[] parents = new Integer[g.getSize()];
-        ResizingDequeImpl<Integer> queue = new ResizingDequeImpl();
+        int[] parents = new int[g.getSize()];
+        Arrays.fill(parents, -1);
+        parents[src] = src;
+        IntDeque queue = new IntDeque();
         queue.addLast(src);
-        discovered[src] = true;
 
-        while (queue.size() != 0) {
-            Integer v = queue.pollFirst();
-            for (Integer u: g.getNeighbors(v)) {
-                if (!discovered[u]) {
-                    discovered[u] = true;
+        // Stop as soon as tgt is discovered; its parent chain is already a shortest path.
+        while (!queue.isEmpty() && parents[tgt] == -1) {
+            int v = queue.pollFirst();
+            g.forEachNeighbor(v, u -> {
+                if (parents[u] == -1) {
+                    parents[u] = v;
                     queue.addLast(u);
+                }
+            });
+        }
+        return buildPath(parents, src, tgt);
+    }
+
+    /**
+     * Returns a shortest path from {@code src} to {@code tgt} in a {@link CSRGraph}, following
+     * out-edges if the graph is directed. Neighbors are scanned straight from the CSR arrays, so
+     * the search allocates nothing per vertex or edge.
+     *
+     * @param g the graph
+     * @param src the vertex from which to search
+     * @param tgt the vertex to find via {@code src}
+     * @return an ordered list of vertices on a shortest path from {@code src} to {@code tgt}, or an
+     *         empty list if there is no path from {@code src} to {@code tgt}. If
+     *         {@code src == tgt}, a list containing just that element is returned.
+     * @throws IllegalArgumentException if {@code src} or {@code tgt} is not in the graph
+     * @throws IllegalArgumentException if the specified graph is null
+     */
+    public static List<Integer> getShortestPath(CSRGraph g, int src, int tgt) {
+        if (g == null) {
+            throw new IllegalArgumentException("graph is null");
+        }
+        if (src < 0 || src >= g.getSize() || tgt < 0 || tgt >= g.getSize()) {
+            throw new IllegalArgumentException("src or tgt are not in the graph.");
+        }
+        int[] parents = new int[g.getSize()];
+        Arrays.fill(parents, -1);
+        parents[src] = src;
+        IntDeque queue = new IntDeque();
+        queue.addLast(src);
+        while (!queue.isEmpty() && parents[tgt] == -1) {
+            int v = queue.pollFirst();
+            for (int e = g.offsets[v]; e < g.offsets[v + 1]; e++) {
+                int u = g.targets[e];
+                if (parents[u] == -1) {
                     parents[u] = v;
+                    queue.addLast(u);
                 }
             }
         }
-        List<Integer> ans = new LinkedList<>();
-        Integer i = tgt;
-        while (i != src) {
-            if (i == null) {
-                return new LinkedList<>();
+        return buildPath(parents, src, tgt);
+    }
+
+    /**
+     * Returns a shortest path from {@code src} to {@code tgt} in a {@link CompressedGraph},
+     * following out-edges if the graph is directed. Neighbor lists are decoded as they are
+     * scanned, with a single reusable cursor.
+     *
+     * @param g the graph
+     * @param src the vertex from which to search
+     * @param tgt the vertex to find via {@code src}
+     * @return an ordered list of vertices on a shortest path from {@code src} to {@code tgt}, or an
+     *         empty list if there is no path from {@code src} to {@code tgt}. If
+     *         {@code src == tgt}, a list containing just that element is returned.
+     * @throws IllegalArgumentException if {@code src} or {@code tgt} is not in the graph
+     * @throws IllegalArgumentException if the specified graph is null
+     */
+    public static List<Integer> getShortestPath(CompressedGraph g, int src, int tgt) {
+        if (g == null) {
+            throw new IllegalArgumentException("graph is null");
+        }
+        if (src < 0 || src >= g.getSize() || tgt < 0 || tgt >= g.getSize()) {
+            throw new IllegalArgumentException("src or tgt are not in the graph.");
+        }
+        int[] parents = new int[g.getSize()];
+        Arrays.fill(parents, -1);
+        parents[src] = src;
+        IntDeque queue = new IntDeque();
+        queue.addLast(src);
+        CompressedGraph.Cursor cursor = g.cursor();
+        while (!queue.isEmpty() && parents[tgt] == -1) {
+            int v = queue.pollFirst();
+            cursor.reset(v);
+            while (cursor.hasNext()) {
+                int u = cursor.nextInt();
+                if (parents[u] == -1) {
+                    parents[u] = v;
+                    queue.addLast(u);
+                }
             }
-            ans.add(0, i);
-            i = parents[i];
         }
-        ans.add(0, src);
+        return buildPath(parents, src, tgt);
+    }
+
+    /**
+     * Returns a shortest path from {@code src} to {@code tgt} by growing breadth-first searches
+     * from both ends and stopping when they meet. Each round expands one whole level of the
+     * side with the smaller frontier. On graphs with a high branching factor the two searches
+     * together visit roughly the square root of the vertices that a one-sided search from
+     * {@code src} would.
+     *
+     * @param g the graph
+     * @param src the vertex from which to search
+     * @param tgt the vertex to find via {@code src}
+     * @return an ordered list of vertices on a shortest path from {@code src} to {@code tgt}, as
+     *         in {@link #getShortestPath(Graph, int, int)}
+     * @throws IllegalArgumentException if {@code src} or {@code tgt} is not in the graph
+     * @throws IllegalArgumentException if the specified graph is null
+     */
+    public static List<Integer> getShortestPathBidirectional(Graph g, int src, int tgt) {
+        if (g == null) {
+            throw new IllegalArgumentException("graph is null");
+        }
+        if (src < 0 || src >= g.getSize() || tgt < 0 || tgt >= g.getSize()) {
+            throw new IllegalArgumentException("src or tgt are not in the graph.");
+        }
+        return bidirectional(g.getSize(), g::forEachNeighbor, g::forEachNeighbor, src, tgt);
+    }
+
+    /**
+     * Returns a shortest path from {@code src} to {@code tgt} in a {@link CSRGraph} by growing
+     * breadth-first searches from both ends, as
+     * {@link #getShortestPathBidirectional(Graph, int, int)} does. The search from {@code tgt}
+     * follows in-edges, so for a directed graph they are built first in O(n + m) time; callers
+     * that run many queries on one directed graph should build them once and use
+     * {@link #getShortestPathBidirectional(CSRGraph, CSRGraph, int, int)}.
+     *
+     * @param g the graph
+     * @param src the vertex from which to search
+     * @param tgt the vertex to find via {@code src}
+     * @return an ordered list of vertices on a shortest path from {@code src} to {@code tgt}, as
+     *         in {@link #getShortestPath(CSRGraph, int, int)}
+     * @throws IllegalArgumentException if {@code src} or {@code tgt} is not in the graph
+     * @throws IllegalArgumentException if the specified graph is null
+     */
+    public static List<Integer> getShortestPathBidirectional(CSRGraph g, int src, int tgt) {
+        if (g == null) {
+            throw new IllegalArgumentException("graph is null");
+        }
+        if (src < 0 || src >= g.getSize() || tgt < 0 || tgt >= g.getSize()) {
+            throw new IllegalArgumentException("src or tgt are not in the graph.");
+        }
+        return getShortestPathBidirectional(g, g.transpose(), src, tgt);
+    }
+
+    /**
+     * Returns a shortest path from {@code src} to {@code tgt} in a {@link CSRGraph} by growing
+     * breadth-first searches from both ends, with the graph's in-edges already built.
+     *
+     * @param g the graph
+     * @param in the in-edges of {@code g}, as returned by {@link CSRGraph#transpose()}
+     * @param src the vertex from which to search
+     * @param tgt the vertex to find via {@code src}
+     * @return an ordered list of vertices on a shortest path from {@code src} to {@code tgt}, as
+     *         in {@link #getShortestPath(CSRGraph, int, int)}
+     * @throws IllegalArgumentException if {@code src} or {@code tgt} is not in the graph
+     * @throws IllegalArgumentException if either graph is null, or {@code in} does not have the
+     *                                  vertices and arcs of {@code g}
+     */
+    public static List<Integer> getShortestPathBidirectional(CSRGraph g, CSRGraph in, int src,
+                                                             int tgt) {
+        DirectionOptimizingBFS.checkInEdges(g, in);
+        if (src < 0 || src >= g.getSize() || tgt < 0 || tgt >= g.getSize()) {
+            throw new IllegalArgumentException("src or tgt are not in the graph.");
+        }
+        return bidirectional(g.getSize(), g::forEachNeighbor, in::forEachNeighbor, src, tgt);
+    }
+
+    // Calls an action with every vertex adjacent to v in one direction of a graph.
+    interface Adjacency {
+        void forEachNeighbor(int v, IntConsumer action);
+    }
+
+    // One side of a bidirectional search. accept() is called with the neighbors of from and
+    // records the shortest meeting with the other side seen so far.
+    private static final class Side implements IntConsumer {
+        final Adjacency adj;
+        final int[] parents;
+        final int[] dist;
+        IntDeque frontier = new IntDeque();
+        IntDeque next = new IntDeque();
+        Side other;
+        int from;
+        int meet = -1;
+        int meetLength = Integer.MAX_VALUE;
+
+        Side(Adjacency adj, int n, int root) {
+            this.adj = adj;
+            parents = new int[n];
+            dist = new int[n];
+            Arrays.fill(parents, -1);
+            parents[root] = root;
+            frontier.addLast(root);
+        }
+
+        // Expands every vertex of the current frontier.
+        void expandLevel() {
+            while (!frontier.isEmpty()) {
+                from = frontier.pollFirst();
+                adj.forEachNeighbor(from, this);
+            }
+            IntDeque tmp = frontier;
+            frontier = next;
+            next = tmp;
+        }
+
+        @Override
+        public void accept(int u) {
+            if (parents[u] == -1) {
+                parents[u] = from;
+                dist[u] = dist[from] + 1;
+                next.addLast(u);
+            }
+            // A vertex both sides reached earlier would have ended the search already, so u
+            // was reached in this level and dist[u] == dist[from] + 1.
+            if (other.parents[u] != -1 && dist[u] + other.dist[u] < meetLength) {
+                meetLength = dist[u] + other.dist[u];
+                meet = u;
+            }
+        }
+    }
+
+    private static List<Integer> bidirectional(int n, Adjacency out, Adjacency in, int src,
+                                               int tgt) {
+        if (src == tgt) {
+            List<Integer> ans = new ArrayList<>();
+            ans.add(src);
+            return ans;
+        }
+        Side forward = new Side(out, n, src);
+        Side backward = new Side(in, n, tgt);
+        forward.other = backward;
+        backward.other = forward;
+        // Every meeting found while expanding one level has the same distance on the expanding
+        // side, so the shortest one of that level is a shortest path overall.
+        while (!forward.frontier.isEmpty() && !backward.frontier.isEmpty()) {
+            Side side = forward.frontier.size() <= backward.frontier.size() ? forward : backward;
+            side.expandLevel();
+            if (side.meet != -1) {
+                List<Integer> ans = buildPath(forward.parents, src, side.meet);
+                for (int v = side.meet; v != tgt; ) {
+                    v = backward.parents[v];
+                    ans.add(v);
+                }
+                return ans;
+            }
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Returns a shortest path in a graph whose vertices were relabeled with
+     * {@link VertexOrdering#apply(Graph)}. The search runs on the permuted graph, but
+     * {@code src}, {@code tgt} and the returned path use the original vertex ids.
+     *
+     * @param g the permuted graph
+     * @param order the ordering that produced {@code g}
+     * @param src the original id of the vertex from which to search
+     * @param tgt the original id of the vertex to find via {@code src}
+     * @return an ordered list of original vertex ids on a shortest path from {@code src} to
+     *         {@code tgt}, as in {@link #getShortestPath(Graph, int, int)}
+     * @throws IllegalArgumentException if {@code src} or {@code tgt} is not in the graph
+     * @throws IllegalArgumentException if the specified graph or ordering is null, or they have
+     *                                  different sizes
+     */
+    public static List<Integer> getShortestPath(Graph g, VertexOrdering order, int src, int tgt) {
+        checkOrdering(g == null ? -1 : g.getSize(), order);
+        if (src < 0 || src >= g.getSize() || tgt < 0 || tgt >= g.getSize()) {
+            throw new IllegalArgumentException("src or tgt are not in the graph.");
+        }
+        return order.toOldIds(getShortestPath(g, order.newIds[src], order.newIds[tgt]));
+    }
+
+    static void checkOrdering(int size, VertexOrdering order) {
+        if (size < 0) {
+            throw new IllegalArgumentException("graph is null");
+        }
+        if (order == null) {
+            throw new IllegalArgumentException("order is null");
+        }
+        if (order.size() != size) {
+            throw new IllegalArgumentException("graph size does not match the ordering");
+        }
+    }
+
+    // Walks parents back from tgt; parents[v] == -1 marks undiscovered vertices.
+    static List<Integer> buildPath(int[] parents, int src, int tgt) {
+        List<Integer> ans = new ArrayList<>();
+        if (parents[tgt] == -1) {
+            return ans;
+        }
+        for (int i = tgt; i != src; i = parents[i]) {
+            ans.add(i);
+        }
+        ans.add(src);
+        Collections.reverse(ans);
         return ans;
     }
 }
@@ -1,29 +1,55 @@
 import java.util.*;
 
 public class BinaryMinHeap<Key extends Comparable<Key>, V> implements BinaryMinHeapInterface<Key, V> {
+    private static final int DEFAULT_CAPACITY = 16;
+
     HashMap<V, Integer> map;
-    ArrayList<Entry<Key, V>> list;
+    // keys[i] is the key of vals[i]. Keys are kept in their own contiguous array so sifting
+    // only touches the array it compares.
+    Object[] keys;
+    Object[] vals;
+    int size;
 
     //Constructor
     public BinaryMinHeap() {
         map = new HashMap<>();
-        list = new ArrayList<>();
+        keys = new Object[DEFAULT_CAPACITY];
+        vals = new Object[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Builds a heap from parallel lists of keys and values in O(n) time.
+     *
+     * @param keys  the priority keys, must be non-null
+     * @param values  the values, keys.get(i) is the key of values.get(i)
+     * @throws IllegalArgumentException  if the lists have different sizes, a key is null or a
+     *                                   value appears more than once
+     */
+    public BinaryMinHeap(List<Key> keys, List<V> values) {
+        if (keys == null || values == null) {
+            throw new IllegalArgumentException("keys or values is null");
+        }
+        int capacity = Math.max(DEFAULT_CAPACITY, keys.size());
+        this.map = new HashMap<>(Math.max(1, (int) (keys.size() / 0.75f) + 1));
+        this.keys = new Object[capacity];
+        this.vals = new Object[capacity];
+        addAll(keys, values);
     }
 
     //Return size of heap
     @Override
     public int size() {
-        return list.size();
+        return size;
     }
 
     @Override
     public boolean isEmpty() {
-        return list.isEmpty();
+        return size == 0;
     }
 
     @Override
     public boolean containsValue(V value) {
-        return map.keySet().contains(value);
+        return map.containsKey(value);
     }
 
     //Adds new Entry to the correct spot in the heap
@@ -35,27 +61,52 @@ public class BinaryMinHeap<Key extends Comparable<Key>, V> implements BinaryMinH
         if (containsValue(value)) {
             throw new IllegalArgumentException("heap already contains value");
         }
-        Entry x = new Entry(key, value);
-        map.put(value, list.size());
-        list.add(x);
-        addHelper(x, list.size() - 1);
-    }
-
-    private void addHelper(Entry x, int i) {
-        if (list.size() == 1) {
-            return;
-        } else {
-            while (((i - 1) / 2 >= 0) &&
-                    list.get(i).getKey().compareTo(list.get((i - 1) / 2).getKey()) < 0) {
-                Entry temp = list.get((i - 1) / 2);
-                V xValue = list.get(i).getValue();
-                V tempValue = list.get((i - 1) / 2).getValue();
-                list.set((i - 1) / 2, x);
-                list.set(i, temp);
-                map.replace(xValue, (i - 1) / 2);
-                map.replace(tempValue, i);
-                i = (i - 1) / 2;
+        ensureCapacity(size + 1);
+        size++;
+        siftUp(size - 1, key, value);
+    }
+
+    /**
+     * Adds every (key, value) pair to the heap. The pairs are appended and the whole heap is then
+     * rebuilt bottom-up (Floyd's heapify), so this runs in O(n + k) rather than O(k log(n + k)).
+     * If an argument is invalid the heap is left unchanged.
+     *
+     * @param keys  the priority keys, must be non-null
+     * @param values  the values, keys.get(i) is the key of values.get(i)
+     * @throws IllegalArgumentException  if the lists have different sizes, a key is null or a
+     *                                   value is already in the heap or appears more than once
+     */
+    public void addAll(List<Key> keys, List<V> values) {
+        if (keys == null || values == null) {
+            throw new IllegalArgumentException("keys or values is null");
+        }
+        if (keys.size() != values.size()) {
+            throw new IllegalArgumentException("keys and values have different sizes");
+        }
+        ensureCapacity(size + keys.size());
+        int oldSize = size;
+        Iterator<Key> keyIter = keys.iterator();
+        Iterator<V> valueIter = values.iterator();
+        while (keyIter.hasNext()) {
+            Key key = keyIter.next();
+            V value = valueIter.next();
+            if (key == null || containsValue(value)) {
+                while (size > oldSize) {
+                    size--;
+                    map.remove(val(size));
+                    this.keys[size] = null;
+                    this.vals[size] = null;
+                }
+                throw new IllegalArgumentException(key == null ? "key is null"
+                        : "heap already contains value");
             }
+            map.put(value, size);
+            this.keys[size] = key;
+            this.vals[size] = value;
+            size++;
+        }
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i, key(i), val(i));
         }
     }
 
@@ -68,130 +119,108 @@ public class BinaryMinHeap<Key extends Comparable<Key>, V> implements BinaryMinH
             throw new IllegalArgumentException("newKey is null");
         }
         int i = map.get(value);
-        if (newKey.compareTo(list.get(i).getKey()) > 0) {
+        if (newKey.compareTo(key(i)) > 0) {
             throw new IllegalArgumentException("newKey is larger than original key.");
         }
-        list.get(i).setKey(newKey);
-        Entry x = list.get(i);
-        addHelper(x, i);
+        siftUp(i, newKey, value);
     }
 
 
     @Override
     public V peek() {
-        if (list.isEmpty()) {
+        if (size == 0) {
             throw new NoSuchElementException("heap is empty.");
         }
-        return list.get(0).getValue();
+        return val(0);
     }
 
 
     @Override
     public V extractMin() {
-        if (list.isEmpty()) {
+        if (size == 0) {
             throw new NoSuchElementException("heap is empty.");
         }
-        V ans = list.get(0).getValue();
-        map.replace(list.get(size() - 1).getValue(), 0);
+        V ans = val(0);
         map.remove(ans);
-        Entry temp = list.remove(list.size() - 1);
-        if (list.size() == 0) {
-            return ans;
-        } else {
-            list.set(0, temp);
-            extractMinHelper(0);
-            return ans;
-        }
-    }
-
-    private void extractMinHelper(int i) {
-        if ((2 * i) + 1 > list.size() - 1) {
-            return;
-        } else if ((2 * i) + 1 == list.size() - 1) {
-            if (list.get((2 * i) + 1).getKey().compareTo(list.get(i).getKey()) < 0) {
-                Entry temp = list.get((2 * i) + 1);
-                V xValue = list.get(i).getValue();
-                V tempValue = list.get((2 * i) + 1).getValue();
-                list.set((2 * i) + 1, list.get(i));
-                list.set(i, temp);
-                map.replace(xValue, (2 * i) + 1);
-                map.replace(tempValue, i);
-                return;
-            }
-        } else {
-            if (list.get((2 * i) + 1).getKey().compareTo(list.get(i).getKey()) < 0) {
-                Entry temp = list.get((2 * i) + 1);
-                V xValue = list.get(i).getValue();
-                V tempValue = list.get((2 * i) + 1).getValue();
-                list.set((2 * i) + 1, list.get(i));
-                list.set(i, temp);
-                map.replace(xValue, (2 * i) + 1);
-                map.replace(tempValue, i);
-                extractMinHelper((2 * i) + 1);
-            }
-            if (list.get((2 * i) + 2).getKey().compareTo(list.get(i).getKey()) < 0) {
-                Entry temp = list.get((2 * i) + 2);
-                V xValue = list.get(i).getValue();
-                V tempValue = list.get((2 * i) + 2).getValue();
-                list.set((2 * i) + 2, list.get(i));
-                list.set(i, temp);
-                map.replace(xValue, (2 * i) + 2);
-                map.replace(tempValue, i);
-                extractMinHelper((2 * i) + 2);
-            }
+        size--;
+        Key lastKey = key(size);
+        V lastValue = val(size);
+        keys[size] = null;
+        vals[size] = null;
+        if (size > 0) {
+            siftDown(0, lastKey, lastValue);
         }
+        return ans;
     }
 
-
-    @Override
-    public Set<V> values() {
-        Set<V> ans = new HashSet<>();
-        for (Entry x: list) {
-            if (x.getValue() == null) {
-                ans.add(null);
-            } else {
-                ans.add((V) x.getValue());
+    // Moves a hole at i up past every parent with a larger key, then drops (key, value) into it.
+    // Each level costs one write per array instead of a full swap.
+    private void siftUp(int i, Key key, V value) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (key.compareTo(key(parent)) >= 0) {
+                break;
             }
+            keys[i] = keys[parent];
+            vals[i] = vals[parent];
+            map.put(val(i), i);
+            i = parent;
         }
-        return ans;
+        keys[i] = key;
+        vals[i] = value;
+        map.put(value, i);
     }
 
-    class Entry<A, B> {
+    // Moves a hole at i down towards the smaller child while that child's key is smaller than
+    // key, then drops (key, value) into it.
+    private void siftDown(int i, Key key, V value) {
+        int half = size / 2;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && key(child + 1).compareTo(key(child)) < 0) {
+                child++;
+            }
+            if (key.compareTo(key(child)) <= 0) {
+                break;
+            }
+            keys[i] = keys[child];
+            vals[i] = vals[child];
+            map.put(val(i), i);
+            i = child;
+        }
+        keys[i] = key;
+        vals[i] = value;
+        map.put(value, i);
+    }
 
-        private A key;
-        private B value;
+    // The arrays only ever hold Key and V instances, so the unchecked casts are safe; keeping
+    // them here avoids a cast at every use.
+    @SuppressWarnings("unchecked")
+    Key key(int i) {
+        return (Key) keys[i];
+    }
 
-        public Entry(A key, B value) {
-            this.value = value;
-            this.key = key;
-        }
+    @SuppressWarnings("unchecked")
+    V val(int i) {
+        return (V) vals[i];
+    }
 
-        /**
-         * @return  the value stored in the entry
-         */
-        public B getValue() {
-            return value;
+    private void ensureCapacity(int capacity) {
+        if (capacity > keys.length) {
+            int newLength = Math.max(capacity, keys.length * 2);
+            keys = Arrays.copyOf(keys, newLength);
+            vals = Arrays.copyOf(vals, newLength);
         }
+    }
 
-        /**
-         * @return  the key stored in the entry
-         */
-        public A getKey() {
-            return key;
-        }
 
-        /**
-         * Changes the key of the entry.
-         *
-         * @param key  the new key
-         * @return  the old key
-         */
-        public A setKey(A key) {
-            A oldKey = this.key;
-            this.key = key;
-            return oldKey;
+    @Override
+    public Set<V> values() {
+        Set<V> ans = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            ans.add(val(i));
         }
-
+        return ans;
     }
 
-}
\ No newline at end of file
+}
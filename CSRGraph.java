@@ -0,0 +1,324 @@
+import java.util.*;
+import java.util.function.IntConsumer;
+
+/**
+ * An immutable graph in compressed sparse row (CSR) form. The out-edges of vertex {@code v} are
+ * stored at positions {@code offsets[v]} (inclusive) through {@code offsets[v + 1]} (exclusive)
+ * of two flat arrays, {@code targets} and {@code weights}, sorted by target. Compared to the
+ * per-edge objects of {@link Graph} and {@link WDGraph}, this takes 12 bytes per stored edge and
+ * traversing a vertex's neighbors is a sequential scan of a primitive array.
+ * <p/>
+ * An undirected graph stores every edge {@code u-v} as the two arcs {@code u->v} and
+ * {@code v->u}; a self-loop is stored once. Parallel edges are not stored.
+ * <p/>
+ * To iterate without allocating, loop over the edge positions directly:
+ * <pre>
+ * for (int e = g.firstEdge(v); e &lt; g.endEdge(v); e++) {
+ *     int u = g.target(e);
+ *     double w = g.weight(e);
+ * }
+ * </pre>
+ */
+public final class CSRGraph {
+    final int numVert;
+    final boolean directed;
+    final int[] offsets;
+    final int[] targets;
+    final double[] weights;
+
+    CSRGraph(int numVert, boolean directed, int[] offsets, int[] targets, double[] weights) {
+        this.numVert = numVert;
+        this.directed = directed;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Builds a CSR copy of an undirected graph.
+     *
+     * @param g the graph
+     * @return an undirected CSR graph with the same vertices, edges and weights
+     * @throws IllegalArgumentException if the specified graph is null
+     * @implSpec This method runs in O(n + m log(max degree)) time.
+     */
+    public static CSRGraph fromGraph(Graph g) {
+        if (g == null) {
+            throw new IllegalArgumentException("graph is null");
+        }
+        int n = g.getSize();
+        int m = 0;
+        for (int v = 0; v < n; v++) {
+            m += g.adjListArr[v].size();
+        }
+        int[] src = new int[m];
+        int[] dst = new int[m];
+        double[] w = new double[m];
+        int i = 0;
+        for (int v = 0; v < n; v++) {
+            for (Graph.UndirectedEdge e : g.adjListArr[v]) {
+                src[i] = v;
+                dst[i] = e.dest;
+                w[i] = e.weight;
+                i++;
+            }
+        }
+        // Both directions are already present in the adjacency lists.
+        return fromArcs(n, false, src, dst, w, m, false);
+    }
+
+    /**
+     * Builds a CSR copy of a directed graph.
+     *
+     * @param g the graph
+     * @return a directed CSR graph with the same vertices, edges and weights
+     * @throws IllegalArgumentException if the specified graph is null
+     * @implSpec This method runs in O(n + m log(max degree)) time.
+     */
+    public static CSRGraph fromWDGraph(WDGraph g) {
+        if (g == null) {
+            throw new IllegalArgumentException("graph is null");
+        }
+        int n = g.getSize();
+        int m = 0;
+        for (int v = 0; v < n; v++) {
+            m += g.adjOutListArr[v].size();
+        }
+        int[] src = new int[m];
+        int[] dst = new int[m];
+        double[] w = new double[m];
+        int i = 0;
+        for (int v = 0; v < n; v++) {
+            for (WDGraph.Edge e : g.adjOutListArr[v]) {
+                src[i] = v;
+                dst[i] = e.neighbor;
+                w[i] = e.weight;
+                i++;
+            }
+        }
+        return fromArcs(n, true, src, dst, w, m, false);
+    }
+
+    /**
+     * Builds a CSR graph from the first {@code m} entries of parallel arc arrays. Rows are filled
+     * with a counting sort on the source, then each row is sorted by target and duplicate targets
+     * are dropped, keeping the weight of the earliest duplicate.
+     *
+     * @param symmetrize if true, every arc {@code u->v} with {@code u != v} is also added as
+     *                   {@code v->u}
+     */
+    static CSRGraph fromArcs(int n, boolean directed, int[] src, int[] dst, double[] w, int m,
+                             boolean symmetrize) {
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < m; i++) {
+            offsets[src[i] + 1]++;
+            if (symmetrize && src[i] != dst[i]) {
+                offsets[dst[i] + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int total = offsets[n];
+        int[] targets = new int[total];
+        double[] weights = new double[total];
+        int[] fill = Arrays.copyOf(offsets, n);
+        for (int i = 0; i < m; i++) {
+            int pos = fill[src[i]]++;
+            targets[pos] = dst[i];
+            weights[pos] = w[i];
+            if (symmetrize && src[i] != dst[i]) {
+                pos = fill[dst[i]]++;
+                targets[pos] = src[i];
+                weights[pos] = w[i];
+            }
+        }
+
+        // Sort and dedupe each row in place, compacting rows towards the front.
+        long[] scratch = new long[0];
+        double[] rowWeights = new double[0];
+        int out = 0;
+        int rowStart = 0;
+        for (int v = 0; v < n; v++) {
+            int rowEnd = offsets[v + 1];
+            int len = rowEnd - rowStart;
+            if (scratch.length < len) {
+                scratch = new long[len];
+                rowWeights = new double[len];
+            }
+            // Packing the original position below the target keeps duplicates in input order.
+            for (int k = 0; k < len; k++) {
+                scratch[k] = ((long) targets[rowStart + k] << 32) | k;
+                rowWeights[k] = weights[rowStart + k];
+            }
+            Arrays.sort(scratch, 0, len);
+            offsets[v] = out;
+            int last = -1;
+            for (int k = 0; k < len; k++) {
+                int t = (int) (scratch[k] >>> 32);
+                if (t != last) {
+                    targets[out] = t;
+                    weights[out] = rowWeights[(int) scratch[k]];
+                    out++;
+                    last = t;
+                }
+            }
+            rowStart = rowEnd;
+        }
+        offsets[n] = out;
+        if (out < total) {
+            targets = Arrays.copyOf(targets, out);
+            weights = Arrays.copyOf(weights, out);
+        }
+        return new CSRGraph(n, directed, offsets, targets, weights);
+    }
+
+    /**
+     * @return the number of vertices in the graph
+     */
+    public int getSize() {
+        return numVert;
+    }
+
+    /**
+     * @return true if the graph is directed
+     */
+    public boolean isDirected() {
+        return directed;
+    }
+
+    /**
+     * @return the number of stored arcs; an undirected edge between two different vertices
+     *         counts twice
+     */
+    public int numArcs() {
+        return targets.length;
+    }
+
+    /**
+     * @param v the vertex
+     * @return the number of (out-)neighbors of {@code v}
+     * @throws IllegalArgumentException if the specified vertex does not exist
+     */
+    public int degree(int v) {
+        checkVertex(v);
+        return offsets[v + 1] - offsets[v];
+    }
+
+    /**
+     * @param v the vertex
+     * @return the position of the first out-edge of {@code v}
+     * @throws IllegalArgumentException if the specified vertex does not exist
+     */
+    public int firstEdge(int v) {
+        checkVertex(v);
+        return offsets[v];
+    }
+
+    /**
+     * @param v the vertex
+     * @return one past the position of the last out-edge of {@code v}
+     * @throws IllegalArgumentException if the specified vertex does not exist
+     */
+    public int endEdge(int v) {
+        checkVertex(v);
+        return offsets[v + 1];
+    }
+
+    /**
+     * @param e an edge position
+     * @return the vertex edge {@code e} points to
+     */
+    public int target(int e) {
+        return targets[e];
+    }
+
+    /**
+     * @param e an edge position
+     * @return the weight of edge {@code e}
+     */
+    public double weight(int e) {
+        return weights[e];
+    }
+
+    /**
+     * Calls {@code action} with every (out-)neighbor of {@code v}, in increasing order.
+     *
+     * @param v the vertex
+     * @param action the action to run for each neighbor
+     * @throws IllegalArgumentException if the specified vertex does not exist
+     */
+    public void forEachNeighbor(int v, IntConsumer action) {
+        checkVertex(v);
+        for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+            action.accept(targets[e]);
+        }
+    }
+
+    /**
+     * @param u a vertex
+     * @param v a vertex
+     * @return {@code true} if the edge {@code u-v} (or arc {@code u->v}) is in this graph
+     * @throws IllegalArgumentException if a specified vertex does not exist
+     * @implSpec This method runs in O(log(deg(u))) time.
+     */
+    public boolean hasEdge(int u, int v) {
+        checkVertex(v);
+        return indexOf(u, v) >= 0;
+    }
+
+    /**
+     * @param u a vertex
+     * @param v a vertex
+     * @return the weight of the edge {@code u-v} (or arc {@code u->v})
+     * @throws NoSuchElementException if the edge does not exist
+     * @throws IllegalArgumentException if a specified vertex does not exist
+     * @implSpec This method runs in O(log(deg(u))) time.
+     */
+    public double getWeight(int u, int v) {
+        checkVertex(v);
+        int e = indexOf(u, v);
+        if (e < 0) {
+            throw new NoSuchElementException("edge u-v does not exist.");
+        }
+        return weights[e];
+    }
+
+    /**
+     * Builds the in-edges of this graph. Searches that walk a directed graph backwards, such as
+     * {@link DirectionOptimizingBFS} and {@link BFS#getShortestPathBidirectional(CSRGraph,
+     * CSRGraph, int, int)}, take the result as an argument, so callers running many of them on
+     * one graph can build it once.
+     *
+     * @return a graph with every arc reversed, so that its rows list in-neighbors; an
+     *         undirected graph is returned as is
+     * @implSpec This method runs in O(n + m) time for a directed graph and O(1) otherwise.
+     */
+    public CSRGraph transpose() {
+        if (!directed) {
+            return this;
+        }
+        int m = numArcs();
+        int[] src = new int[m];
+        int[] dst = new int[m];
+        for (int u = 0; u < numVert; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                src[e] = targets[e];
+                dst[e] = u;
+            }
+        }
+        return fromArcs(numVert, true, src, dst, weights, m, false);
+    }
+
+    private int indexOf(int u, int v) {
+        checkVertex(u);
+        int e = Arrays.binarySearch(targets, offsets[u], offsets[u + 1], v);
+        return e >= offsets[u] ? e : -1;
+    }
+
+    private void checkVertex(int v) {
+        if (v < 0 || v >= numVert) {
+            throw new IllegalArgumentException("vertex " + v + " does not exist.");
+        }
+    }
+}
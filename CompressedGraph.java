@@ -0,0 +1,282 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * An immutable, unweighted graph whose sorted neighbor lists are gap-encoded with varints in a
+ * single byte array. The first neighbor of {@code v} is stored as its zigzag-encoded distance
+ * from {@code v}, and every later neighbor as its distance from the previous one minus one.
+ * Each value takes 7 bits per byte, so small gaps take a single byte. Rows are decoded on the
+ * fly while they are traversed.
+ * <p/>
+ * Gaps are small when neighbors have nearby ids, so relabeling the graph with a
+ * {@link VertexOrdering} first usually brings storage down to 1-2 bytes per edge, against 12 for
+ * a {@link CSRGraph}. Weights are not stored; use this for traversals such as
+ * {@link BFS#getShortestPath(CompressedGraph, int, int)} and
+ * {@link DFS#dfsExploreComponent(CompressedGraph, int)} that ignore them.
+ */
+public final class CompressedGraph {
+    final int numVert;
+    final boolean directed;
+    final int numArcs;
+    // The encoded neighbors of v are data[offsets[v]] through data[offsets[v + 1] - 1].
+    final int[] offsets;
+    final byte[] data;
+
+    private CompressedGraph(int numVert, boolean directed, int numArcs, int[] offsets,
+                            byte[] data) {
+        this.numVert = numVert;
+        this.directed = directed;
+        this.numArcs = numArcs;
+        this.offsets = offsets;
+        this.data = data;
+    }
+
+    /**
+     * Builds a compressed copy of an undirected graph.
+     *
+     * @param g the graph
+     * @return an undirected compressed graph with the same vertices and edges
+     * @throws IllegalArgumentException if the specified graph is null
+     */
+    public static CompressedGraph fromGraph(Graph g) {
+        if (g == null) {
+            throw new IllegalArgumentException("graph is null");
+        }
+        return fromCSRGraph(CSRGraph.fromGraph(g));
+    }
+
+    /**
+     * Builds a compressed copy of a directed graph.
+     *
+     * @param g the graph
+     * @return a directed compressed graph with the same vertices and edges
+     * @throws IllegalArgumentException if the specified graph is null
+     */
+    public static CompressedGraph fromWDGraph(WDGraph g) {
+        if (g == null) {
+            throw new IllegalArgumentException("graph is null");
+        }
+        return fromCSRGraph(CSRGraph.fromWDGraph(g));
+    }
+
+    /**
+     * Builds a compressed copy of a CSR graph, dropping its weights.
+     *
+     * @param g the graph
+     * @return a compressed graph with the same vertices, edges and direction
+     * @throws IllegalArgumentException if the specified graph is null or encodes to more than
+     *                                  2 GB
+     * @implSpec This method runs in O(n + m) time.
+     */
+    public static CompressedGraph fromCSRGraph(CSRGraph g) {
+        if (g == null) {
+            throw new IllegalArgumentException("graph is null");
+        }
+        int n = g.getSize();
+        int[] offsets = new int[n + 1];
+        byte[] data = new byte[Math.max(16, g.numArcs() + g.numArcs() / 2)];
+        long pos = 0;
+        for (int v = 0; v < n; v++) {
+            offsets[v] = (int) pos;
+            int last = v;
+            for (int e = g.offsets[v]; e < g.offsets[v + 1]; e++) {
+                int t = g.targets[e];
+                // Rows are sorted and distinct, so every gap after the first is at least one.
+                int x = e == g.offsets[v] ? zigzag(t - v) : t - last - 1;
+                last = t;
+                if (pos + 5 > data.length) {
+                    long capacity = Math.min(Integer.MAX_VALUE - 8, 2L * data.length);
+                    if (pos + 5 > capacity) {
+                        throw new IllegalArgumentException("graph is too large to compress");
+                    }
+                    data = Arrays.copyOf(data, (int) capacity);
+                }
+                while ((x & ~0x7f) != 0) {
+                    data[(int) pos++] = (byte) ((x & 0x7f) | 0x80);
+                    x >>>= 7;
+                }
+                data[(int) pos++] = (byte) x;
+            }
+        }
+        offsets[n] = (int) pos;
+        return new CompressedGraph(n, g.isDirected(), g.numArcs(), offsets,
+                Arrays.copyOf(data, (int) pos));
+    }
+
+    /**
+     * @return the number of vertices in the graph
+     */
+    public int getSize() {
+        return numVert;
+    }
+
+    /**
+     * @return true if the graph is directed
+     */
+    public boolean isDirected() {
+        return directed;
+    }
+
+    /**
+     * @return the number of stored arcs; an undirected edge between two different vertices
+     *         counts twice
+     */
+    public int numArcs() {
+        return numArcs;
+    }
+
+    /**
+     * @return the number of bytes used by the encoded neighbor lists, excluding the row offsets
+     */
+    public int encodedSize() {
+        return data.length;
+    }
+
+    /**
+     * @param v the vertex
+     * @return the number of (out-)neighbors of {@code v}
+     * @throws IllegalArgumentException if the specified vertex does not exist
+     * @implSpec This method runs in O(deg(v)) time, since the row has to be scanned.
+     */
+    public int degree(int v) {
+        checkVertex(v);
+        // Every encoded value ends with exactly one byte whose high bit is clear.
+        int ans = 0;
+        for (int p = offsets[v]; p < offsets[v + 1]; p++) {
+            if (data[p] >= 0) {
+                ans++;
+            }
+        }
+        return ans;
+    }
+
+    /**
+     * Calls {@code action} with every (out-)neighbor of {@code v}, in increasing order.
+     *
+     * @param v the vertex
+     * @param action the action to run for each neighbor
+     * @throws IllegalArgumentException if the specified vertex does not exist
+     */
+    public void forEachNeighbor(int v, IntConsumer action) {
+        checkVertex(v);
+        int p = offsets[v];
+        int end = offsets[v + 1];
+        int last = v;
+        boolean first = true;
+        while (p < end) {
+            long r = readVarint(p);
+            p = (int) (r >>> 32);
+            last = nextTarget(first, last, (int) r);
+            first = false;
+            action.accept(last);
+        }
+    }
+
+    /**
+     * @param u a vertex
+     * @param v a vertex
+     * @return {@code true} if the edge {@code u-v} (or arc {@code u->v}) is in this graph
+     * @throws IllegalArgumentException if a specified vertex does not exist
+     * @implSpec This method runs in O(deg(u)) time.
+     */
+    public boolean hasEdge(int u, int v) {
+        checkVertex(v);
+        Cursor c = cursor();
+        c.reset(u);
+        while (c.hasNext()) {
+            int t = c.nextInt();
+            if (t >= v) {
+                return t == v;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return a new cursor over this graph, positioned on an empty row
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * A reusable iterator over the neighbors of one vertex at a time. Calling {@link #reset}
+     * moves it to another vertex without allocating, so a traversal needs only one cursor.
+     */
+    public final class Cursor implements PrimitiveIterator.OfInt {
+        private int pos;
+        private int end;
+        private int last;
+        private boolean first;
+
+        private Cursor() {}
+
+        /**
+         * Positions this cursor on the first neighbor of {@code v}.
+         *
+         * @param v the vertex
+         * @throws IllegalArgumentException if the specified vertex does not exist
+         */
+        public void reset(int v) {
+            checkVertex(v);
+            pos = offsets[v];
+            end = offsets[v + 1];
+            last = v;
+            first = true;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return pos < end;
+        }
+
+        @Override
+        public int nextInt() {
+            if (pos >= end) {
+                throw new NoSuchElementException();
+            }
+            long r = readVarint(pos);
+            pos = (int) (r >>> 32);
+            last = nextTarget(first, last, (int) r);
+            first = false;
+            return last;
+        }
+    }
+
+    // Decodes the varint starting at data[pos]. Returns the position after it in the high half
+    // and the value in the low half.
+    long readVarint(int pos) {
+        int x = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[pos++];
+            x |= (b & 0x7f) << shift;
+            shift += 7;
+        } while (b < 0);
+        return ((long) pos << 32) | (x & 0xffffffffL);
+    }
+
+    // Turns a decoded value into a neighbor. For the first neighbor of v, prev is v itself;
+    // otherwise it is the previous neighbor.
+    static int nextTarget(boolean first, int prev, int x) {
+        return first ? prev + unzigzag(x) : prev + x + 1;
+    }
+
+    // Folds signed ints into unsigned ones so that small negative gaps also encode in few bytes.
+    private static int zigzag(int x) {
+        return (x << 1) ^ (x >> 31);
+    }
+
+    private static int unzigzag(int x) {
+        return (x >>> 1) ^ -(x & 1);
+    }
+
+    private void checkVertex(int v) {
+        if (v < 0 || v >= numVert) {
+            throw new IllegalArgumentException("vertex " + v + " does not exist.");
+        }
+    }
+}
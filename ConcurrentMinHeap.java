@@ -0,0 +1,182 @@
+import java.util.Collections;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A thread-safe implementation of {@link BinaryMinHeapInterface} for shared work queues with
+ * many producers and consumers. Entries live in a concurrent skip list ordered by
+ * (key, insertion sequence), and a concurrent hash map tracks each value's current entry so
+ * decreaseKey can replace it without a global lock.
+ * <p/>
+ * Ordering is strict: extractMin always returns a value whose key was minimal at some instant
+ * during the call. Unlike the other heaps, values must be non-null, because the underlying
+ * concurrent map does not allow null keys.
+ *
+ * @param <Key> the type of priorities for this heap
+ * @param <V> the type of values stored in this heap
+ */
+public class ConcurrentMinHeap<Key extends Comparable<Key>, V>
+        implements BinaryMinHeapInterface<Key, V> {
+    final ConcurrentSkipListSet<Node<Key, V>> set;
+    final ConcurrentHashMap<V, Node<Key, V>> map;
+    final AtomicLong sequence;
+
+    //Constructor
+    public ConcurrentMinHeap() {
+        set = new ConcurrentSkipListSet<>();
+        map = new ConcurrentHashMap<>();
+        sequence = new AtomicLong();
+    }
+
+    /**
+     * Runtime: O(1); the result is a snapshot if other threads are modifying the heap
+     */
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    /**
+     * Runtime: O(1) expected
+     */
+    @Override
+    public boolean containsValue(V value) {
+        return value != null && map.containsKey(value);
+    }
+
+    /**
+     * The value is published in the value map before its entry is linked into the skip list,
+     * so for a short window a concurrent {@link #size} or {@link #isEmpty} already counts it
+     * while a concurrent {@link #extractMin} cannot return it yet, and may throw
+     * {@link NoSuchElementException} even though {@code isEmpty()} was false.
+     *
+     * @throws IllegalArgumentException  if value is null
+     *
+     * Runtime: O(log n) expected
+     */
+    @Override
+    public void add(Key key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("key is null");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("value is null");
+        }
+        Node<Key, V> x = new Node<>(key, value, sequence.getAndIncrement());
+        if (map.putIfAbsent(value, x) != null) {
+            throw new IllegalArgumentException("heap already contains value");
+        }
+        set.add(x);
+    }
+
+    /**
+     * Atomically replaces the value's entry with one carrying the new key. Concurrent
+     * decreaseKey calls on the same value are serialized; calls on different values are not.
+     *
+     * Runtime: O(log n) expected
+     */
+    @Override
+    public void decreaseKey(V value, Key newKey) {
+        if (newKey == null) {
+            throw new IllegalArgumentException("newKey is null");
+        }
+        if (value == null) {
+            throw new NoSuchElementException("value is not in the heap.");
+        }
+        Node<Key, V> ans = map.computeIfPresent(value, (v, old) -> {
+            if (newKey.compareTo(old.key) > 0) {
+                throw new IllegalArgumentException("newKey is larger than original key.");
+            }
+            Node<Key, V> x = new Node<>(newKey, v, sequence.getAndIncrement());
+            // Mark old before x becomes visible, so readers that see x in the skip list before
+            // the map points to it can still tell which of the two entries is stale.
+            old.superseded = true;
+            // Insert before removing so the value is never missing from the skip list.
+            set.add(x);
+            set.remove(old);
+            return x;
+        });
+        if (ans == null) {
+            throw new NoSuchElementException("value is not in the heap.");
+        }
+    }
+
+    /**
+     * Runtime: O(log n) expected
+     */
+    @Override
+    public V peek() {
+        while (true) {
+            Node<Key, V> x = first();
+            // x may belong to a decreaseKey that has not installed it in the map yet; it is
+            // still the value's entry, so only entries proved stale are dropped.
+            if (!x.superseded) {
+                return x.value;
+            }
+            set.remove(x);
+        }
+    }
+
+    /**
+     * Runtime: O(log n) expected
+     */
+    @Override
+    public V extractMin() {
+        while (true) {
+            Node<Key, V> x = set.pollFirst();
+            if (x == null) {
+                throw new NoSuchElementException("heap is empty.");
+            }
+            // Fails only if a concurrent decreaseKey replaced x, in which case its new entry
+            // is still in the skip list and we retry. If x is the new entry of a decreaseKey
+            // still in progress, remove blocks on the same map bin until x is installed.
+            if (map.remove(x.value, x)) {
+                return x.value;
+            }
+        }
+    }
+
+    /**
+     * @return  an unmodifiable, weakly consistent view of the values in the heap
+     */
+    @Override
+    public Set<V> values() {
+        return Collections.unmodifiableSet(map.keySet());
+    }
+
+    private Node<Key, V> first() {
+        try {
+            return set.first();
+        } catch (NoSuchElementException e) {
+            throw new NoSuchElementException("heap is empty.");
+        }
+    }
+
+    static final class Node<A extends Comparable<A>, B> implements Comparable<Node<A, B>> {
+        final A key;
+        final B value;
+        final long seq;
+        // Set once a decreaseKey has replaced this entry; it never becomes valid again.
+        volatile boolean superseded;
+
+        Node(A key, B value, long seq) {
+            this.key = key;
+            this.value = value;
+            this.seq = seq;
+        }
+
+        @Override
+        public int compareTo(Node<A, B> other) {
+            int c = key.compareTo(other.key);
+            return c != 0 ? c : Long.compare(seq, other.seq);
+        }
+    }
+}
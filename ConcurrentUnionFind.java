@@ -0,0 +1,148 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A lock-free union-find that many threads can use at once, following the randomized linking
+ * scheme of Jayanti and Tarjan. Roots are linked with a single compare-and-swap on the parent
+ * array, always attaching the root with the lower priority below the one with the higher
+ * priority, so no cycles can form even when unions race. Priorities are a fixed pseudo-random
+ * permutation of the indices, which gives the same expected tree depth as random linking without
+ * storing anything extra. {@code find} compacts paths with CAS-based path halving; losing one of
+ * those races only means a path is compacted a little less.
+ * <p/>
+ * The API matches {@link UnionFind}, except that {@link #union} reports whether it merged two
+ * sets, which is what concurrent Kruskal-style callers need to know.
+ */
+public class ConcurrentUnionFind {
+    int numElements;
+    // parent[u] == u exactly when u is a root.
+    final AtomicIntegerArray parent;
+    final AtomicInteger numSets;
+
+    /**
+     * Initializes a new union-find structure for the specified number of elements.
+     *
+     * @param n the number of singleton sets with which to start
+     * @throws IllegalArgumentException if {@code n} is negative
+     */
+    public ConcurrentUnionFind(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("invalid n is negative.");
+        }
+        numElements = n;
+        parent = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++) {
+            parent.set(i, i);
+        }
+        numSets = new AtomicInteger(n);
+    }
+
+    /**
+     * Joins two sets. Safe to call concurrently with any other method.
+     *
+     * @param u a vertex in the first set
+     * @param v a vertex in the second set
+     * @return {@code true} if this call merged two different sets
+     * @throws IllegalArgumentException if {@code u} or {@code v} is out of bounds
+     */
+    public boolean union(int u, int v) {
+        if (u < 0 || u >= numElements) {
+            throw new IllegalArgumentException("u is out of bounds.");
+        }
+        if (v < 0 || v >= numElements) {
+            throw new IllegalArgumentException("v is out of bounds.");
+        }
+        while (true) {
+            int uRoot = find(u);
+            int vRoot = find(v);
+            if (uRoot == vRoot) {
+                return false;
+            }
+            if (lowerPriority(vRoot, uRoot)) {
+                int temp = uRoot;
+                uRoot = vRoot;
+                vRoot = temp;
+            }
+            // Fails if uRoot stopped being a root since we found it; start over from there.
+            if (parent.compareAndSet(uRoot, uRoot, vRoot)) {
+                numSets.decrementAndGet();
+                return true;
+            }
+            u = uRoot;
+            v = vRoot;
+        }
+    }
+
+    /**
+     * Finds which set a vertex belongs to. If other threads are calling {@link #union}, the
+     * returned root may stop being a root at any time; use {@link #connected} to compare two
+     * vertices reliably.
+     *
+     * @param u the vertex
+     * @return the root of the set to which the input vertex belongs
+     * @throws IllegalArgumentException if {@code u} is out of bounds
+     */
+    public int find(int u) {
+        if (u < 0 || u >= numElements) {
+            throw new IllegalArgumentException("u is out of bounds.");
+        }
+        while (true) {
+            int p = parent.get(u);
+            if (p == u) {
+                return u;
+            }
+            int gp = parent.get(p);
+            if (p != gp) {
+                parent.compareAndSet(u, p, gp);
+            }
+            u = gp;
+        }
+    }
+
+    /**
+     * Determines whether two vertices are in the same set. The answer is exact at some point
+     * during the call even when unions run concurrently.
+     *
+     * @param u a vertex
+     * @param v a vertex
+     * @return {@code true} if {@code u} and {@code v} are in the same set
+     * @throws IllegalArgumentException if {@code u} or {@code v} is out of bounds
+     */
+    public boolean connected(int u, int v) {
+        while (true) {
+            int uRoot = find(u);
+            int vRoot = find(v);
+            if (uRoot == vRoot) {
+                return true;
+            }
+            // If uRoot is still a root, u and v were in different sets when vRoot was found.
+            if (parent.get(uRoot) == uRoot) {
+                return false;
+            }
+            u = uRoot;
+        }
+    }
+
+    /**
+     * @return the number of disjoint sets; a snapshot if unions are running concurrently
+     */
+    public int count() {
+        return numSets.get();
+    }
+
+    private static boolean lowerPriority(int a, int b) {
+        int pa = mix(a);
+        int pb = mix(b);
+        return pa < pb || (pa == pb && a < b);
+    }
+
+    // A bijective 32-bit hash (MurmurHash3's finalizer), used as a pseudo-random priority.
+    private static int mix(int x) {
+        x ^= x >>> 16;
+        x *= 0x85ebca6b;
+        x ^= x >>> 13;
+        x *= 0xc2b2ae35;
+        x ^= x >>> 16;
+        return x;
+    }
+}
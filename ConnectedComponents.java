@@ -1,7 +1,9 @@
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.PrimitiveIterator;
 import java.util.Set;
+import java.util.function.IntConsumer;
 
 /**
  * Provides access to the strongly connected components for a graph.
@@ -80,6 +82,46 @@ public class ConnectedComponents {
             return g.outNeighbors(v); // Transposes edges
         }
         
+        @Override
+        public int outDegree(int v) {
+            return g.inDegree(v);
+        }
+
+        @Override
+        public int inDegree(int v) {
+            return g.outDegree(v);
+        }
+
+        @Override
+        public void forEachOutNeighbor(int v, IntConsumer action) {
+            g.forEachInNeighbor(v, action);
+        }
+
+        @Override
+        public void forEachInNeighbor(int v, IntConsumer action) {
+            g.forEachOutNeighbor(v, action);
+        }
+
+        @Override
+        public void forEachOutEdge(int v, EdgeConsumer action) {
+            g.forEachInEdge(v, action);
+        }
+
+        @Override
+        public void forEachInEdge(int v, EdgeConsumer action) {
+            g.forEachOutEdge(v, action);
+        }
+
+        @Override
+        public PrimitiveIterator.OfInt outNeighborIterator(int v) {
+            return g.inNeighborIterator(v);
+        }
+
+        @Override
+        public PrimitiveIterator.OfInt inNeighborIterator(int v) {
+            return g.outNeighborIterator(v);
+        }
+
         @Override
         public int getSize() {
 
@@ -1,4 +1,5 @@
 import java.util.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 /**
  * Contains methods to run DFS on a {@link WDGraph}.
@@ -53,7 +54,8 @@ public final class DFS {
     static void dfsReverseFinishingTimeHelper(WDGraph g, int x, boolean[] discovered,
                                               List<Integer> ans) {
         discovered[x] = true;
-        List<WDGraph.Edge> orderedAdjList = g.adjOutListArr[x];
+        // Sort a copy: DynamicWDGraph indexes edges by their position in the adjacency list.
+        List<WDGraph.Edge> orderedAdjList = new ArrayList<>(g.adjOutListArr[x]);
         Collections.sort(orderedAdjList);
 
         for (int i = 0; i < orderedAdjList.size(); i++) {
@@ -94,20 +96,262 @@ public final class DFS {
         return ans;
     }
 
+    /**
+     * Computes the same set as {@link #dfsExploreComponent(WDGraph, int)} using several threads.
+     * Each worker explores depth-first from its own {@link WorkStealingDeque} and idle workers
+     * steal the oldest pending vertices of busy ones; vertices are claimed with a
+     * compare-and-swap so each is expanded exactly once. The graph must not be modified while
+     * this runs.
+     *
+     * @param g the graph
+     * @param src the vertex from which to begin search
+     * @param parallelism the number of worker threads
+     * @return a set containing all vertices reachable from {@code src}, including {@code src}
+     * @throws IllegalArgumentException if {@code src} is not in the graph
+     * @throws IllegalArgumentException if the specified graph is null
+     * @throws IllegalArgumentException if {@code parallelism} is not positive
+     */
+    public static Set<Integer> parallelExploreComponent(WDGraph g, int src, int parallelism) {
+        if (g == null) {
+            throw new IllegalArgumentException("graph is null");
+        }
+        if (src < 0 || src >= g.getSize()) {
+            throw new IllegalArgumentException("src is out of bounds");
+        }
+        WorkStealingScheduler scheduler = new WorkStealingScheduler(parallelism);
+        AtomicIntegerArray discovered = new AtomicIntegerArray(g.getSize());
+        discovered.set(src, 1);
+        scheduler.run(Collections.singletonList(src), (x, spawner) -> {
+            g.forEachOutNeighbor(x, i -> {
+                if (discovered.get(i) == 0 && discovered.compareAndSet(i, 0, 1)) {
+                    spawner.spawn(i);
+                }
+            });
+        });
+
+        Set<Integer> ans = new HashSet<>();
+        for (int i = 0; i < discovered.length(); i++) {
+            if (discovered.get(i) == 1) {
+                ans.add(i);
+            }
+        }
+        return ans;
+    }
+
     static void dfsExploreComponentHelper(WDGraph g, int x, boolean[] discovered,
                                           Set<Integer> ans) {
         discovered[x] = true;
         ans.add(x);
 
-        Set<Integer> adjList = g.outNeighbors(x);
-
-        Iterator<Integer> iter = adjList.iterator();
-
-        while (iter.hasNext()) {
-            Integer i = iter.next();
+        g.forEachOutNeighbor(x, i -> {
             if (!discovered[i]) {
                 dfsExploreComponentHelper(g, i, discovered, ans);
             }
+        });
+    }
+
+    /**
+     * Runs depth-first search on a directed {@link CSRGraph} and returns the list of nodes
+     * explored in reverse order of node finishing time, following the same rules as
+     * {@link #dfsReverseFinishingTime(WDGraph, int)}. CSR rows are already sorted, so neighbors
+     * are visited in increasing order without sorting, and the search uses an explicit stack, so
+     * deep graphs cannot overflow the call stack.
+     *
+     * @param g the graph
+     * @param src the vertex from which to begin search
+     * @return a list containing all vertices of the graph in reverse order of finish time
+     * @throws IllegalArgumentException if {@code src} is not in the graph
+     * @throws IllegalArgumentException if the specified graph is null
+     */
+    public static List<Integer> dfsReverseFinishingTime(CSRGraph g, int src) {
+        if (g == null) {
+            throw new IllegalArgumentException("graph is null");
+        }
+        if (src < 0 || src >= g.getSize()) {
+            throw new IllegalArgumentException("src is out of bounds");
+        }
+        int n = g.getSize();
+        int[] finished = new int[n];
+        int numFinished = 0;
+        boolean[] discovered = new boolean[n];
+        // stack[k] is a vertex on the current DFS path and cursor[k] its next edge to try.
+        int[] stack = new int[n];
+        int[] cursor = new int[n];
+
+        for (int root = -1; root < n; root++) {
+            int start = root == -1 ? src : root;
+            if (discovered[start]) {
+                continue;
+            }
+            int depth = 0;
+            stack[0] = start;
+            cursor[0] = g.offsets[start];
+            discovered[start] = true;
+            while (depth >= 0) {
+                int x = stack[depth];
+                if (cursor[depth] < g.offsets[x + 1]) {
+                    int y = g.targets[cursor[depth]++];
+                    if (!discovered[y]) {
+                        discovered[y] = true;
+                        depth++;
+                        stack[depth] = y;
+                        cursor[depth] = g.offsets[y];
+                    }
+                } else {
+                    finished[numFinished++] = x;
+                    depth--;
+                }
+            }
         }
+
+        List<Integer> ans = new ArrayList<>(n);
+        for (int i = numFinished - 1; i >= 0; i--) {
+            ans.add(finished[i]);
+        }
+        return ans;
+    }
+
+    /**
+     * Returns the set of nodes reachable from {@code src} in a {@link CSRGraph}, following
+     * out-edges if the graph is directed. The search uses an explicit stack.
+     *
+     * @param g the graph
+     * @param src the vertex from which to begin search
+     * @return a set containing all vertices reachable from {@code src}, including {@code src}
+     * @throws IllegalArgumentException if {@code src} is not in the graph
+     * @throws IllegalArgumentException if the specified graph is null
+     */
+    public static Set<Integer> dfsExploreComponent(CSRGraph g, int src) {
+        if (g == null) {
+            throw new IllegalArgumentException("graph is null");
+        }
+        if (src < 0 || src >= g.getSize()) {
+            throw new IllegalArgumentException("src is out of bounds");
+        }
+        boolean[] discovered = new boolean[g.getSize()];
+        Set<Integer> ans = new HashSet<>();
+        IntDeque stack = new IntDeque();
+        stack.addLast(src);
+        discovered[src] = true;
+        while (!stack.isEmpty()) {
+            int x = stack.pollLast();
+            ans.add(x);
+            for (int e = g.offsets[x]; e < g.offsets[x + 1]; e++) {
+                int y = g.targets[e];
+                if (!discovered[y]) {
+                    discovered[y] = true;
+                    stack.addLast(y);
+                }
+            }
+        }
+        return ans;
+    }
+
+    /**
+     * Runs depth-first search on a directed {@link CompressedGraph} and returns the list of
+     * nodes explored in reverse order of node finishing time, following the same rules as
+     * {@link #dfsReverseFinishingTime(WDGraph, int)}. Rows are stored sorted, so neighbors are
+     * visited in increasing order; the search keeps a decoding position per stack frame
+     * instead of recursing.
+     *
+     * @param g the graph
+     * @param src the vertex from which to begin search
+     * @return a list containing all vertices of the graph in reverse order of finish time
+     * @throws IllegalArgumentException if {@code src} is not in the graph
+     * @throws IllegalArgumentException if the specified graph is null
+     */
+    public static List<Integer> dfsReverseFinishingTime(CompressedGraph g, int src) {
+        if (g == null) {
+            throw new IllegalArgumentException("graph is null");
+        }
+        if (src < 0 || src >= g.getSize()) {
+            throw new IllegalArgumentException("src is out of bounds");
+        }
+        int n = g.getSize();
+        int[] finished = new int[n];
+        int numFinished = 0;
+        boolean[] discovered = new boolean[n];
+        // stack[k] is a vertex on the current DFS path, pos[k] the position of its next encoded
+        // neighbor and last[k] the neighbor decoded before it (the vertex itself at the start).
+        int[] stack = new int[n];
+        int[] pos = new int[n];
+        int[] last = new int[n];
+
+        for (int root = -1; root < n; root++) {
+            int start = root == -1 ? src : root;
+            if (discovered[start]) {
+                continue;
+            }
+            int depth = 0;
+            stack[0] = start;
+            pos[0] = g.offsets[start];
+            last[0] = start;
+            discovered[start] = true;
+            while (depth >= 0) {
+                int x = stack[depth];
+                if (pos[depth] < g.offsets[x + 1]) {
+                    boolean first = pos[depth] == g.offsets[x];
+                    long r = g.readVarint(pos[depth]);
+                    pos[depth] = (int) (r >>> 32);
+                    int y = CompressedGraph.nextTarget(first, last[depth], (int) r);
+                    last[depth] = y;
+                    if (!discovered[y]) {
+                        discovered[y] = true;
+                        depth++;
+                        stack[depth] = y;
+                        pos[depth] = g.offsets[y];
+                        last[depth] = y;
+                    }
+                } else {
+                    finished[numFinished++] = x;
+                    depth--;
+                }
+            }
+        }
+
+        List<Integer> ans = new ArrayList<>(n);
+        for (int i = numFinished - 1; i >= 0; i--) {
+            ans.add(finished[i]);
+        }
+        return ans;
+    }
+
+    /**
+     * Returns the set of nodes reachable from {@code src} in a {@link CompressedGraph},
+     * following out-edges if the graph is directed. The search uses an explicit stack and a
+     * single reusable cursor.
+     *
+     * @param g the graph
+     * @param src the vertex from which to begin search
+     * @return a set containing all vertices reachable from {@code src}, including {@code src}
+     * @throws IllegalArgumentException if {@code src} is not in the graph
+     * @throws IllegalArgumentException if the specified graph is null
+     */
+    public static Set<Integer> dfsExploreComponent(CompressedGraph g, int src) {
+        if (g == null) {
+            throw new IllegalArgumentException("graph is null");
+        }
+        if (src < 0 || src >= g.getSize()) {
+            throw new IllegalArgumentException("src is out of bounds");
+        }
+        boolean[] discovered = new boolean[g.getSize()];
+        Set<Integer> ans = new HashSet<>();
+        IntDeque stack = new IntDeque();
+        CompressedGraph.Cursor cursor = g.cursor();
+        stack.addLast(src);
+        discovered[src] = true;
+        while (!stack.isEmpty()) {
+            int x = stack.pollLast();
+            ans.add(x);
+            cursor.reset(x);
+            while (cursor.hasNext()) {
+                int y = cursor.nextInt();
+                if (!discovered[y]) {
+                    discovered[y] = true;
+                    stack.addLast(y);
+                }
+            }
+        }
+        return ans;
     }
 }
@@ -1,5 +1,4 @@
-
-import java.util.LinkedList;
+import java.util.Arrays;
 
 /**
  * Provides access to Dijkstra's algorithm for a weighted, directed graph.
@@ -15,23 +14,49 @@ public class Dijkstra {
      * @param src the source node
      * @param tgt the target node
      * @return an Iterable containing the nodes in the path, including the start and end nodes. If
-     *         the start and end nodes are the same, or if there is no path from the start node to
-     *         the end node, it returns an empty Iterable.
+     *         there is no path from the start node to the end node, it returns an empty Iterable;
+     *         if the start and end nodes are the same, it contains just that node.
      * @throws IllegalArgumentException if g is null
      * @throws IllegalArgumentException if src is not in g
      * @throws IllegalArgumentException if tgt is not in g
      */
 
     public static Iterable<Integer> getShortestPath(WDGraph g, int src, int tgt) {
+        return getShortestPath(g, src, tgt, new BinaryMinHeap<>());
+    }
+
+    /**
+     * Computes the shortest path between two nodes in a weighted, directed graph, using the
+     * specified priority queue. A {@link PairingHeap} makes decreaseKey O(1) amortized, and a
+     * {@link RadixHeap} gives close to linear total time when the weights are non-negative
+     * integers.
+     *
+     * @param g the graph to compute the shortest path on
+     * @param src the source node
+     * @param tgt the target node
+     * @param queue an empty priority queue to run the search with
+     * @return an Iterable containing the nodes in the path, including the start and end nodes. If
+     *         there is no path from the start node to the end node, it returns an empty Iterable;
+     *         if the start and end nodes are the same, it contains just that node.
+     * @throws IllegalArgumentException if g is null
+     * @throws IllegalArgumentException if src is not in g
+     * @throws IllegalArgumentException if tgt is not in g
+     * @throws IllegalArgumentException if queue is null or not empty
+     */
+    public static Iterable<Integer> getShortestPath(WDGraph g, int src, int tgt,
+                                                    BinaryMinHeapInterface<Double, Integer> queue) {
         if (g == null) {
             throw new IllegalArgumentException("g is null");
         }
-        if (src < 0 || src > g.getSize()) {
+        if (src < 0 || src >= g.getSize()) {
             throw new IllegalArgumentException("src is out of bounds");
         }
-        if (tgt < 0 || tgt > g.getSize()) {
+        if (tgt < 0 || tgt >= g.getSize()) {
             throw new IllegalArgumentException("tgt is out of bounds");
         }
+        if (queue == null || !queue.isEmpty()) {
+            throw new IllegalArgumentException("queue is null or not empty");
+        }
 
         double[] distances = new double[g.getSize()];
         for (int i = 0; i < distances.length; i++) {
@@ -40,15 +65,17 @@ public class Dijkstra {
         distances[src] = 0;
 
 
-        Integer[] parent = new Integer[g.getSize()];
+        int[] parent = new int[g.getSize()];
+        Arrays.fill(parent, -1);
+        parent[src] = src;
 
-        BinaryMinHeap<Double, Integer> queue = new BinaryMinHeap();
         queue.add(distances[src], src);
         while (!queue.isEmpty()) {
             int x = queue.extractMin();
-            for (int i: g.outNeighbors(x)) {
-                if (distances[i] > distances[x] + g.getWeight(x, i)) {
-                    distances[i] = distances[x] + g.getWeight(x, i);
+            // Weights come with the edges, so relaxing an edge needs no getWeight lookup.
+            g.forEachOutEdge(x, (i, w) -> {
+                if (distances[i] > distances[x] + w) {
+                    distances[i] = distances[x] + w;
                     parent[i] = x;
                     if (queue.containsValue(i)) {
                         queue.decreaseKey(i, distances[i]);
@@ -56,16 +83,114 @@ public class Dijkstra {
                         queue.add(distances[i], i);
                     }
                 }
-            }
+            });
+        }
+        return BFS.buildPath(parent, src, tgt);
+    }
+
+    /**
+     * Computes the shortest path in a graph whose vertices were relabeled with
+     * {@link VertexOrdering#apply(WDGraph)}. The search runs on the permuted graph, but
+     * {@code src}, {@code tgt} and the returned path use the original vertex ids.
+     *
+     * @param g the permuted graph
+     * @param order the ordering that produced {@code g}
+     * @param src the original id of the source node
+     * @param tgt the original id of the target node
+     * @return an Iterable containing the original ids of the nodes in the path, as in
+     *         {@link #getShortestPath(WDGraph, int, int)}
+     * @throws IllegalArgumentException if g or order is null, or they have different sizes
+     * @throws IllegalArgumentException if src is not in g
+     * @throws IllegalArgumentException if tgt is not in g
+     */
+    public static Iterable<Integer> getShortestPath(WDGraph g, VertexOrdering order, int src,
+                                                    int tgt) {
+        BFS.checkOrdering(g == null ? -1 : g.getSize(), order);
+        if (src < 0 || src >= g.getSize()) {
+            throw new IllegalArgumentException("src is out of bounds");
         }
-        LinkedList<Integer> ans = new LinkedList<>();
-        int i = tgt;
-        while (i != src) {
-            ans.add(0, i);
-            i = parent[i];
+        if (tgt < 0 || tgt >= g.getSize()) {
+            throw new IllegalArgumentException("tgt is out of bounds");
         }
-        ans.add(0, src);
-        return ans;
+        return order.toOldIds(getShortestPath(g, order.newIds[src], order.newIds[tgt]));
     }
 
+    /**
+     * Computes the shortest path between two nodes in a directed {@link CSRGraph}. Out-edges and
+     * their weights are read straight from the CSR arrays, so no neighbor sets are built and no
+     * per-edge weight lookups are needed.
+     *
+     * @param g the graph to compute the shortest path on
+     * @param src the source node
+     * @param tgt the target node
+     * @return an Iterable containing the nodes in the path, including the start and end nodes. If
+     *         there is no path from the start node to the end node, it returns an empty Iterable;
+     *         if the start and end nodes are the same, it contains just that node.
+     * @throws IllegalArgumentException if g is null
+     * @throws IllegalArgumentException if src is not in g
+     * @throws IllegalArgumentException if tgt is not in g
+     */
+    public static Iterable<Integer> getShortestPath(CSRGraph g, int src, int tgt) {
+        return getShortestPath(g, src, tgt, new BinaryMinHeap<>());
+    }
+
+    /**
+     * Same as {@link #getShortestPath(CSRGraph, int, int)}, using the specified priority queue.
+     *
+     * @param g the graph to compute the shortest path on
+     * @param src the source node
+     * @param tgt the target node
+     * @param queue an empty priority queue to run the search with
+     * @return an Iterable containing the nodes in the path, including the start and end nodes. If
+     *         there is no path from the start node to the end node, it returns an empty Iterable;
+     *         if the start and end nodes are the same, it contains just that node.
+     * @throws IllegalArgumentException if g is null
+     * @throws IllegalArgumentException if src is not in g
+     * @throws IllegalArgumentException if tgt is not in g
+     * @throws IllegalArgumentException if queue is null or not empty
+     */
+    public static Iterable<Integer> getShortestPath(CSRGraph g, int src, int tgt,
+                                                    BinaryMinHeapInterface<Double, Integer> queue) {
+        if (g == null) {
+            throw new IllegalArgumentException("g is null");
+        }
+        if (src < 0 || src >= g.getSize()) {
+            throw new IllegalArgumentException("src is out of bounds");
+        }
+        if (tgt < 0 || tgt >= g.getSize()) {
+            throw new IllegalArgumentException("tgt is out of bounds");
+        }
+        if (queue == null || !queue.isEmpty()) {
+            throw new IllegalArgumentException("queue is null or not empty");
+        }
+
+        double[] distances = new double[g.getSize()];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        distances[src] = 0;
+        int[] parent = new int[g.getSize()];
+        Arrays.fill(parent, -1);
+        parent[src] = src;
+
+        queue.add(distances[src], src);
+        while (!queue.isEmpty()) {
+            int x = queue.extractMin();
+            if (x == tgt) {
+                break;
+            }
+            for (int e = g.offsets[x]; e < g.offsets[x + 1]; e++) {
+                int i = g.targets[e];
+                double d = distances[x] + g.weights[e];
+                if (distances[i] > d) {
+                    distances[i] = d;
+                    parent[i] = x;
+                    if (queue.containsValue(i)) {
+                        queue.decreaseKey(i, d);
+                    } else {
+                        queue.add(d, i);
+                    }
+                }
+            }
+        }
+        return BFS.buildPath(parent, src, tgt);
+    }
 }
@@ -0,0 +1,243 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Facade for direction-optimizing breadth-first search (Beamer et al.). A classic top-down
+ * step scans the edges of every frontier vertex. On low-diameter graphs the middle levels
+ * contain most of the graph, and most of those edges lead to vertices that are already
+ * discovered. A bottom-up step instead lets every undiscovered vertex scan its
+ * in-neighbors for one in the frontier and stop at the first hit, which skips most edges
+ * when the frontier is large.
+ * <p/>
+ * The search starts top-down and switches to bottom-up once the frontier's edges outnumber
+ * the unexplored edges divided by {@link #ALPHA}. It switches back once the frontier holds
+ * fewer than {@code n / }{@link #BETA} vertices. The discovered set and the bottom-up frontier
+ * are bitsets, so a bottom-up step tests frontier membership with one bit. The search runs
+ * on a {@link CSRGraph}; the {@link Graph} entry point converts first, so callers running
+ * many searches on one graph should convert once themselves. Bottom-up steps on a directed
+ * graph also need its in-edges, {@link CSRGraph#transpose()}. The entry points without an
+ * in-edge argument build them when the search first switches to bottom-up, which costs
+ * O(n + m) per call; callers running many searches should build them once and pass them in.
+ */
+public final class DirectionOptimizingBFS {
+    private DirectionOptimizingBFS() {}
+
+    // The tuning constants suggested by Beamer et al.
+    static final int ALPHA = 15;
+    static final int BETA = 18;
+
+    /**
+     * Returns a shortest path from {@code src} to {@code tgt} in an undirected graph.
+     *
+     * @param g the graph
+     * @param src the vertex from which to search
+     * @param tgt the vertex to find via {@code src}
+     * @return an ordered list of vertices on a shortest path from {@code src} to {@code tgt}, or an
+     *         empty list if there is no path from {@code src} to {@code tgt}. If
+     *         {@code src == tgt}, a list containing just that element is returned.
+     * @throws IllegalArgumentException if {@code src} or {@code tgt} is not in the graph
+     * @throws IllegalArgumentException if the specified graph is null
+     */
+    public static List<Integer> getShortestPath(Graph g, int src, int tgt) {
+        if (g == null) {
+            throw new IllegalArgumentException("graph is null");
+        }
+        return getShortestPath(CSRGraph.fromGraph(g), src, tgt);
+    }
+
+    /**
+     * Returns a shortest path from {@code src} to {@code tgt} in a CSR graph, following
+     * out-edges if it is directed. If the search switches to bottom-up on a directed graph, its
+     * in-edges are built first.
+     *
+     * @param g the graph
+     * @param src the vertex from which to search
+     * @param tgt the vertex to find via {@code src}
+     * @return an ordered list of vertices on a shortest path from {@code src} to {@code tgt}, or an
+     *         empty list if there is no path from {@code src} to {@code tgt}. If
+     *         {@code src == tgt}, a list containing just that element is returned.
+     * @throws IllegalArgumentException if {@code src} or {@code tgt} is not in the graph
+     * @throws IllegalArgumentException if the specified graph is null
+     */
+    public static List<Integer> getShortestPath(CSRGraph g, int src, int tgt) {
+        if (g == null) {
+            throw new IllegalArgumentException("graph is null");
+        }
+        checkPair(g, src, tgt);
+        return BFS.buildPath(search(g, null, src, tgt), src, tgt);
+    }
+
+    /**
+     * Returns a shortest path from {@code src} to {@code tgt} in a CSR graph, following
+     * out-edges if it is directed, with its in-edges already built.
+     *
+     * @param g the graph
+     * @param in the in-edges of {@code g}, as returned by {@link CSRGraph#transpose()}
+     * @param src the vertex from which to search
+     * @param tgt the vertex to find via {@code src}
+     * @return an ordered list of vertices on a shortest path from {@code src} to {@code tgt}, or an
+     *         empty list if there is no path from {@code src} to {@code tgt}. If
+     *         {@code src == tgt}, a list containing just that element is returned.
+     * @throws IllegalArgumentException if {@code src} or {@code tgt} is not in the graph
+     * @throws IllegalArgumentException if either graph is null, or {@code in} does not have the
+     *                                  vertices and arcs of {@code g}
+     */
+    public static List<Integer> getShortestPath(CSRGraph g, CSRGraph in, int src, int tgt) {
+        checkInEdges(g, in);
+        checkPair(g, src, tgt);
+        return BFS.buildPath(search(g, in, src, tgt), src, tgt);
+    }
+
+    /**
+     * Computes a breadth-first search tree of everything reachable from {@code src}. If the
+     * search switches to bottom-up on a directed graph, its in-edges are built first.
+     *
+     * @param g the graph
+     * @param src the root of the search
+     * @return an array whose entry {@code v} is the parent of {@code v} in the tree, {@code src}
+     *         for {@code src} itself and -1 for unreachable vertices
+     * @throws IllegalArgumentException if {@code src} is not in the graph
+     * @throws IllegalArgumentException if the specified graph is null
+     */
+    public static int[] parents(CSRGraph g, int src) {
+        if (g == null) {
+            throw new IllegalArgumentException("graph is null");
+        }
+        checkSource(g, src);
+        return search(g, null, src, -1);
+    }
+
+    /**
+     * Computes a breadth-first search tree of everything reachable from {@code src}, with the
+     * graph's in-edges already built.
+     *
+     * @param g the graph
+     * @param in the in-edges of {@code g}, as returned by {@link CSRGraph#transpose()}
+     * @param src the root of the search
+     * @return an array whose entry {@code v} is the parent of {@code v} in the tree, {@code src}
+     *         for {@code src} itself and -1 for unreachable vertices
+     * @throws IllegalArgumentException if {@code src} is not in the graph
+     * @throws IllegalArgumentException if either graph is null, or {@code in} does not have the
+     *                                  vertices and arcs of {@code g}
+     */
+    public static int[] parents(CSRGraph g, CSRGraph in, int src) {
+        checkInEdges(g, in);
+        checkSource(g, src);
+        return search(g, in, src, -1);
+    }
+
+    // Rejects an in-edge graph that cannot be the transpose of g. Only the sizes are compared,
+    // since comparing the arcs would cost as much as building them.
+    static void checkInEdges(CSRGraph g, CSRGraph in) {
+        if (g == null || in == null) {
+            throw new IllegalArgumentException("graph is null");
+        }
+        if (in.getSize() != g.getSize() || in.numArcs() != g.numArcs()
+                || in.isDirected() != g.isDirected()) {
+            throw new IllegalArgumentException("in is not the transpose of the graph");
+        }
+    }
+
+    private static void checkPair(CSRGraph g, int src, int tgt) {
+        if (src < 0 || src >= g.getSize() || tgt < 0 || tgt >= g.getSize()) {
+            throw new IllegalArgumentException("src or tgt are not in the graph.");
+        }
+    }
+
+    private static void checkSource(CSRGraph g, int src) {
+        if (src < 0 || src >= g.getSize()) {
+            throw new IllegalArgumentException("src is out of bounds");
+        }
+    }
+
+    // Runs the search until tgt is discovered (never, if tgt is -1) or the graph is exhausted.
+    // in lists the in-neighbors of every vertex; if it is null, it is built on the first
+    // switch to bottom-up, so searches that stay top-down never pay for it.
+    static int[] search(CSRGraph g, CSRGraph in, int src, int tgt) {
+        int n = g.getSize();
+        int[] parents = new int[n];
+        Arrays.fill(parents, -1);
+        parents[src] = src;
+        long[] discovered = new long[(n + 63) >>> 6];
+        long[] frontierBits = new long[discovered.length];
+        long[] nextBits = new long[discovered.length];
+        int[] frontier = new int[n];
+        int[] next = new int[n];
+        discovered[src >>> 6] |= 1L << src;
+        frontier[0] = src;
+        int frontierSize = 1;
+        // Edges still to be checked from undiscovered vertices, and edges out of the frontier.
+        long unexploredEdges = g.numArcs() - degree(g, src);
+        long frontierEdges = degree(g, src);
+        boolean bottomUp = false;
+
+        while (frontierSize > 0 && (tgt < 0 || parents[tgt] == -1)) {
+            if (!bottomUp && frontierEdges > unexploredEdges / ALPHA) {
+                bottomUp = true;
+                if (in == null) {
+                    in = g.transpose();
+                }
+                Arrays.fill(frontierBits, 0);
+                for (int i = 0; i < frontierSize; i++) {
+                    frontierBits[frontier[i] >>> 6] |= 1L << frontier[i];
+                }
+            } else if (bottomUp && frontierSize < n / BETA) {
+                bottomUp = false;
+            }
+
+            int nextSize = 0;
+            long nextEdges = 0;
+            if (bottomUp) {
+                Arrays.fill(nextBits, 0);
+                for (int w = 0; w < discovered.length; w++) {
+                    long undiscovered = ~discovered[w];
+                    while (undiscovered != 0) {
+                        int v = (w << 6) + Long.numberOfTrailingZeros(undiscovered);
+                        undiscovered &= undiscovered - 1;
+                        if (v >= n) {
+                            break;
+                        }
+                        for (int e = in.offsets[v]; e < in.offsets[v + 1]; e++) {
+                            int u = in.targets[e];
+                            if ((frontierBits[u >>> 6] & (1L << u)) != 0) {
+                                parents[v] = u;
+                                nextBits[w] |= 1L << v;
+                                next[nextSize++] = v;
+                                nextEdges += degree(g, v);
+                                break;
+                            }
+                        }
+                    }
+                    discovered[w] |= nextBits[w];
+                }
+                long[] tmp = frontierBits;
+                frontierBits = nextBits;
+                nextBits = tmp;
+            } else {
+                for (int i = 0; i < frontierSize; i++) {
+                    int u = frontier[i];
+                    for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+                        int v = g.targets[e];
+                        if ((discovered[v >>> 6] & (1L << v)) == 0) {
+                            discovered[v >>> 6] |= 1L << v;
+                            parents[v] = u;
+                            next[nextSize++] = v;
+                            nextEdges += degree(g, v);
+                        }
+                    }
+                }
+            }
+            int[] tmp = frontier;
+            frontier = next;
+            next = tmp;
+            frontierSize = nextSize;
+            frontierEdges = nextEdges;
+            unexploredEdges -= nextEdges;
+        }
+        return parents;
+    }
+
+    private static int degree(CSRGraph g, int v) {
+        return g.offsets[v + 1] - g.offsets[v];
+    }
+}
@@ -0,0 +1,195 @@
+import java.util.Arrays;
+
+/**
+ * A union-find whose universe can grow after construction, with an optional rollback mode.
+ * <p/>
+ * {@link #makeSet()} adds a new singleton set in amortized O(1), so elements can be created as
+ * they stream in instead of fixing {@code n} up front as {@link UnionFind} does.
+ * <p/>
+ * In rollback mode, {@code find} does no path compression and every successful union is
+ * recorded on an undo stack. {@link #checkpoint()} marks the current state and
+ * {@link #rollback()} undoes every union made since the most recent mark. With union by size
+ * alone, trees stay O(log n) deep, so every operation is O(log n) worst case and an undo is
+ * O(1) per union. This is what offline dynamic connectivity and divide-and-conquer over edge
+ * sets need. Without rollback mode, {@code find} uses path halving like {@link UnionFind}.
+ */
+public class DynamicUnionFind {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    int numElements;
+    int numSets;
+    // Same encoding as UnionFind: a root holds its negated set size.
+    int[] parent;
+    final boolean rollback;
+    // Pairs of (attached root, its parent entry before the union), one pair per union.
+    int[] history;
+    int historySize;
+    // History sizes saved by checkpoint(), most recent last.
+    IntDeque checkpoints;
+
+    /**
+     * Creates an empty structure without rollback support.
+     */
+    public DynamicUnionFind() {
+        this(0, false);
+    }
+
+    /**
+     * @param n the number of singleton sets with which to start
+     * @param rollback if true, unions can be undone with {@link #checkpoint()} and
+     *                 {@link #rollback()}, and find does no path compression
+     * @throws IllegalArgumentException if {@code n} is negative
+     */
+    public DynamicUnionFind(int n, boolean rollback) {
+        if (n < 0) {
+            throw new IllegalArgumentException("invalid n is negative.");
+        }
+        numElements = n;
+        numSets = n;
+        parent = new int[Math.max(n, DEFAULT_CAPACITY)];
+        Arrays.fill(parent, -1);
+        this.rollback = rollback;
+        if (rollback) {
+            history = new int[2 * DEFAULT_CAPACITY];
+            checkpoints = new IntDeque();
+        }
+    }
+
+    /**
+     * Adds a new singleton set.
+     *
+     * @return the new element, which is equal to the number of elements before the call
+     * @implSpec This method runs in amortized O(1) time.
+     */
+    public int makeSet() {
+        if (numElements == parent.length) {
+            int oldLength = parent.length;
+            parent = Arrays.copyOf(parent, oldLength * 2);
+            Arrays.fill(parent, oldLength, parent.length, -1);
+        }
+        numSets++;
+        return numElements++;
+    }
+
+    /**
+     * @return the number of elements
+     */
+    public int size() {
+        return numElements;
+    }
+
+    /**
+     * @return the number of disjoint sets
+     */
+    public int count() {
+        return numSets;
+    }
+
+    /**
+     * Joins two sets, linking the root of the smaller set under the root of the larger one.
+     *
+     * @param u a vertex in the first set
+     * @param v a vertex in the second set
+     * @return {@code true} if two different sets were merged
+     * @throws IllegalArgumentException if {@code u} or {@code v} is out of bounds
+     */
+    public boolean union(int u, int v) {
+        int uRoot = find(u);
+        int vRoot = find(v);
+        if (uRoot == vRoot) {
+            return false;
+        }
+        if (parent[uRoot] > parent[vRoot]) {
+            int temp = uRoot;
+            uRoot = vRoot;
+            vRoot = temp;
+        }
+        if (rollback) {
+            if (historySize == history.length) {
+                history = Arrays.copyOf(history, history.length * 2);
+            }
+            history[historySize++] = vRoot;
+            history[historySize++] = parent[vRoot];
+        }
+        parent[uRoot] += parent[vRoot];
+        parent[vRoot] = uRoot;
+        numSets--;
+        return true;
+    }
+
+    /**
+     * Finds which set a vertex belongs to.
+     *
+     * @param u the vertex
+     * @return the root of the set to which the input vertex belongs
+     * @throws IllegalArgumentException if {@code u} is out of bounds
+     */
+    public int find(int u) {
+        if (u < 0 || u >= numElements) {
+            throw new IllegalArgumentException("u is out of bounds.");
+        }
+        if (rollback) {
+            while (parent[u] >= 0) {
+                u = parent[u];
+            }
+            return u;
+        }
+        while (parent[u] >= 0) {
+            int p = parent[u];
+            if (parent[p] < 0) {
+                return p;
+            }
+            parent[u] = parent[p];
+            u = parent[p];
+        }
+        return u;
+    }
+
+    /**
+     * @param u a vertex
+     * @param v a vertex
+     * @return {@code true} if {@code u} and {@code v} are in the same set
+     * @throws IllegalArgumentException if {@code u} or {@code v} is out of bounds
+     */
+    public boolean connected(int u, int v) {
+        return find(u) == find(v);
+    }
+
+    /**
+     * Marks the current state so a later {@link #rollback()} can return to it. Checkpoints nest.
+     *
+     * @throws IllegalStateException if this structure was not created in rollback mode
+     */
+    public void checkpoint() {
+        if (!rollback) {
+            throw new IllegalStateException("rollback mode is off");
+        }
+        checkpoints.addLast(historySize);
+    }
+
+    /**
+     * Undoes every union made since the most recent checkpoint and removes that checkpoint.
+     * Elements added by {@link #makeSet()} since then are kept, as singletons.
+     *
+     * @throws IllegalStateException if this structure was not created in rollback mode or there
+     *         is no checkpoint
+     * @implSpec This method runs in O(k) time, where k is the number of unions undone.
+     */
+    public void rollback() {
+        if (!rollback) {
+            throw new IllegalStateException("rollback mode is off");
+        }
+        if (checkpoints.isEmpty()) {
+            throw new IllegalStateException("no checkpoint");
+        }
+        int target = checkpoints.pollLast();
+        while (historySize > target) {
+            int oldEntry = history[--historySize];
+            int child = history[--historySize];
+            int root = parent[child];
+            parent[root] -= oldEntry;
+            parent[child] = oldEntry;
+            numSets++;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+import java.util.*;
+
+/**
+ * A {@link WDGraph} that also supports removing edges, changing edge weights and adding
+ * vertices, for graphs such as road networks whose weights change while they are in use.
+ * <p/>
+ * Two {@link LongIntHashMap}s record where every edge sits in its source's out-list and its
+ * target's in-list. With them, {@link #hasEdge}, {@link #getWeight}, {@link #addEdge},
+ * {@link #updateWeight} and {@link #removeEdge} run in expected O(1) time. A removal moves
+ * the last edge of each list into the freed slot, so the order of a vertex's edges is not
+ * preserved.
+ * <p/>
+ * Every change increments {@link #version()} and is reported to the registered
+ * {@link ChangeListener}s after it has been applied. Caches can compare versions to detect
+ * staleness, and incremental algorithms can react to individual changes.
+ */
+public class DynamicWDGraph extends WDGraph {
+    /**
+     * The kinds of edge changes reported to a {@link ChangeListener}.
+     */
+    public enum Change { ADDED, REMOVED, UPDATED }
+
+    /**
+     * Receives the changes made to a {@link DynamicWDGraph}.
+     */
+    public interface ChangeListener {
+        /**
+         * Called after an edge has been added, removed or had its weight changed.
+         *
+         * @param change the kind of change
+         * @param u the source vertex of the edge
+         * @param v the target vertex of the edge
+         * @param oldWeight the previous weight, or NaN if the edge was added
+         * @param newWeight the new weight, or NaN if the edge was removed
+         * @param version the graph version after the change
+         */
+        void edgeChanged(Change change, int u, int v, double oldWeight, double newWeight,
+                         long version);
+
+        /**
+         * Called after a vertex has been added.
+         *
+         * @param v the new vertex
+         * @param version the graph version after the change
+         */
+        default void vertexAdded(int v, long version) {}
+    }
+
+    // (u << 32 | v) -> position of the u->v edge in adjOutListArr[u]
+    LongIntHashMap outPos;
+    // (v << 32 | u) -> position of the u->v edge in adjInListArr[v]
+    LongIntHashMap inPos;
+    long version;
+    List<ChangeListener> listeners;
+
+    /**
+     * Initializes a graph of size {@code n} with no edges.
+     *
+     * @param n the number of vertices in the graph
+     * @throws IllegalArgumentException if {@code n} is negative
+     * @implSpec This method should run in O(n) time
+     */
+    public DynamicWDGraph(int n) {
+        super(checkSize(n));
+        outPos = new LongIntHashMap();
+        inPos = new LongIntHashMap();
+        listeners = new ArrayList<>();
+    }
+
+    /**
+     * Initializes a graph with the same vertices, edges and weights as the specified graph.
+     *
+     * @param g the graph to copy
+     * @throws IllegalArgumentException if the specified graph is null
+     * @implSpec This method should run in expected O(n + m) time
+     */
+    public DynamicWDGraph(WDGraph g) {
+        this(g == null ? 0 : g.getSize());
+        if (g == null) {
+            throw new IllegalArgumentException("graph is null");
+        }
+        for (int u = 0; u < g.getSize(); u++) {
+            int src = u;
+            g.forEachOutEdge(u, (v, w) -> addEdge(src, v, w));
+        }
+        version = 0;
+    }
+
+    /**
+     * @return the number of changes made to this graph since it was created
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Registers a listener to be notified of every later change.
+     *
+     * @param listener the listener
+     * @throws IllegalArgumentException if listener is null
+     */
+    public void addListener(ChangeListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("listener is null");
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * @param listener the listener to unregister
+     * @return true if the listener was registered
+     */
+    public boolean removeListener(ChangeListener listener) {
+        return listeners.remove(listener);
+    }
+
+    /**
+     * Adds a new vertex with no edges. Its index is the previous number of vertices.
+     *
+     * @return the new vertex
+     * @implSpec This method should run in amortized O(1) time.
+     */
+    public int addVertex() {
+        if (numVert == adjOutListArr.length) {
+            int capacity = Math.max(16, adjOutListArr.length * 2);
+            adjOutListArr = Arrays.copyOf(adjOutListArr, capacity);
+            adjInListArr = Arrays.copyOf(adjInListArr, capacity);
+        }
+        int v = numVert;
+        adjOutListArr[v] = new ArrayList<>();
+        adjInListArr[v] = new ArrayList<>();
+        numVert++;
+        version++;
+        for (ChangeListener listener : listeners) {
+            listener.vertexAdded(v, version);
+        }
+        return v;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @implSpec This method should run in expected O(1) time.
+     */
+    @Override
+    public boolean addEdge(int u, int v, double weight) {
+        if (u == v) {
+            throw new IllegalArgumentException("no self-loops allowed");
+        }
+        if (hasEdge(u, v)) {
+            return false;
+        }
+        outPos.put(key(u, v), adjOutListArr[u].size());
+        inPos.put(key(v, u), adjInListArr[v].size());
+        adjOutListArr[u].add(new Edge(v, weight));
+        adjInListArr[v].add(new Edge(u, weight));
+        fire(Change.ADDED, u, v, Double.NaN, weight);
+        return true;
+    }
+
+    /**
+     * Removes the edge from {@code u} to {@code v} if it exists.
+     *
+     * @param u the source vertex
+     * @param v the target vertex
+     * @return {@code true} if the graph changed as a result of this call
+     * @throws IllegalArgumentException if a specified vertex does not exist
+     * @implSpec This method should run in expected O(1) time.
+     */
+    public boolean removeEdge(int u, int v) {
+        checkVertices(u, v);
+        int i = outPos.getOrDefault(key(u, v), -1);
+        if (i < 0) {
+            return false;
+        }
+        double weight = adjOutListArr[u].get(i).weight;
+        outPos.remove(key(u, v));
+        Edge moved = swapRemove(adjOutListArr[u], i);
+        if (moved != null) {
+            outPos.put(key(u, moved.neighbor), i);
+        }
+        int j = inPos.get(key(v, u));
+        inPos.remove(key(v, u));
+        moved = swapRemove(adjInListArr[v], j);
+        if (moved != null) {
+            inPos.put(key(v, moved.neighbor), j);
+        }
+        fire(Change.REMOVED, u, v, weight, Double.NaN);
+        return true;
+    }
+
+    /**
+     * Changes the weight of the edge from {@code u} to {@code v}.
+     *
+     * @param u the source vertex
+     * @param v the target vertex
+     * @param weight the new edge weight
+     * @return the previous edge weight
+     * @throws NoSuchElementException if the {@code u-v} edge does not exist
+     * @throws IllegalArgumentException if a specified vertex does not exist
+     * @implSpec This method should run in expected O(1) time.
+     */
+    public double updateWeight(int u, int v, double weight) {
+        checkVertices(u, v);
+        int i = outPos.getOrDefault(key(u, v), -1);
+        if (i < 0) {
+            throw new NoSuchElementException("edge u-v does not exist.");
+        }
+        Edge out = adjOutListArr[u].get(i);
+        double old = out.weight;
+        out.weight = weight;
+        adjInListArr[v].get(inPos.get(key(v, u))).weight = weight;
+        fire(Change.UPDATED, u, v, old, weight);
+        return old;
+    }
+
+    @Override
+    boolean hasEdge(int u, int v) {
+        checkVertices(u, v);
+        return outPos.containsKey(key(u, v));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @implSpec This method should run in expected O(1) time.
+     */
+    @Override
+    public double getWeight(int u, int v) {
+        checkVertices(u, v);
+        int i = outPos.getOrDefault(key(u, v), -1);
+        if (i < 0) {
+            throw new NoSuchElementException("edge u-v does not exist.");
+        }
+        return adjOutListArr[u].get(i).weight;
+    }
+
+    @Override
+    public Set<Integer> outNeighbors(int v) {
+        checkVertices(v, v);
+        return super.outNeighbors(v);
+    }
+
+    @Override
+    public Set<Integer> inNeighbors(int v) {
+        checkVertices(v, v);
+        return super.inNeighbors(v);
+    }
+
+    // Moves the last element of list into position i and returns it, or returns null if the
+    // element at i was the last one.
+    private static Edge swapRemove(ArrayList<Edge> list, int i) {
+        Edge last = list.remove(list.size() - 1);
+        if (i == list.size()) {
+            return null;
+        }
+        list.set(i, last);
+        return last;
+    }
+
+    private void fire(Change change, int u, int v, double oldWeight, double newWeight) {
+        version++;
+        for (ChangeListener listener : listeners) {
+            listener.edgeChanged(change, u, v, oldWeight, newWeight, version);
+        }
+    }
+
+    // The adjacency arrays may be longer than the number of vertices, so vertices are checked
+    // against numVert rather than the array length.
+    private void checkVertices(int u, int v) {
+        if (u >= numVert || u < 0) {
+            throw new IllegalArgumentException("vertex u does not exist.");
+        }
+        if (v >= numVert || v < 0) {
+            throw new IllegalArgumentException("vertex v does not exist.");
+        }
+    }
+
+    private static int checkSize(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n is negative");
+        }
+        return n;
+    }
+
+    private static long key(int u, int v) {
+        return ((long) u << 32) | v;
+    }
+}
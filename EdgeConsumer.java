@@ -0,0 +1,17 @@
+/**
+ * An operation that accepts one edge of a graph as primitives, so visiting the edges of a
+ * vertex does not box the neighbor or the weight.
+ *
+ * @see Graph#forEachEdge(int, EdgeConsumer)
+ * @see WDGraph#forEachOutEdge(int, EdgeConsumer)
+ */
+@FunctionalInterface
+public interface EdgeConsumer {
+    /**
+     * Performs this operation on an edge.
+     *
+     * @param dst the vertex at the other end of the edge
+     * @param weight the edge weight
+     */
+    void accept(int dst, double weight);
+}
@@ -1,4 +1,5 @@
 import java.util.*;
+import java.util.function.IntConsumer;
 /**
  * Contains the API necessary for an undirected, (optionally) weighted graph. We use ints to
  * identify vertices (i.e. the vertices are labeled 0 through n-1).
@@ -62,6 +63,9 @@ public class Graph {
 
     private int numVert;
     LinkedList<UndirectedEdge>[] adjListArr;
+    // Optional index from the packed vertex pair of every edge to its weight; null when the
+    // graph was created without one. See key(int, int).
+    LongIntHashMap edgeIndex;
     /**
      * Initializes a graph of size {@code n}. All valid vertices in this graph thus have integer
      * indices in the half-open range {@code [0, n)}.
@@ -80,6 +84,25 @@ public class Graph {
         }
     }
 
+    /**
+     * Initializes a graph of size {@code n}, optionally with an edge index. The index maps every
+     * edge to its weight in a primitive hash table kept alongside the adjacency lists, so that
+     * {@link #hasEdge}, {@link #getWeight} and the duplicate check in {@link #addEdge} run in
+     * expected O(1) time instead of scanning adjacency lists, at the cost of about 24 extra bytes
+     * per edge.
+     *
+     * @param n the number of vertices in the graph
+     * @param indexEdges whether to maintain the edge index
+     * @throws IllegalArgumentException if {@code n} is negative
+     * @implSpec This constructor should run in O(n) time.
+     */
+    public Graph(int n, boolean indexEdges) {
+        this(n);
+        if (indexEdges) {
+            edgeIndex = new LongIntHashMap();
+        }
+    }
+
     /**
      * Returns the number of vertices in the graph.
      * <p/>
@@ -101,7 +124,8 @@ public class Graph {
      * @param v a vertex
      * @return {@code true} if the {@code u-v} edge is in this graph
      * @throws IllegalArgumentException if a specified vertex does not exist
-     * @implSpec This method should run in O(max(deg(u), deg(v))) time.
+     * @implSpec This method should run in O(max(deg(u), deg(v))) time, or expected O(1) time if
+     *           the graph has an edge index.
      */
     public boolean hasEdge(int u, int v) {
         if (u >= adjListArr.length || u < 0) {
@@ -110,6 +134,9 @@ public class Graph {
         if (v >= adjListArr.length || v < 0) {
             throw new IllegalArgumentException("vertex v does not exist.");
         }
+        if (edgeIndex != null) {
+            return edgeIndex.containsKey(key(u, v));
+        }
         UndirectedEdge x = new UndirectedEdge(u, v);
         UndirectedEdge y = new UndirectedEdge(v, u);
         return adjListArr[u].contains(x) && adjListArr[v].contains(y);
@@ -127,7 +154,8 @@ public class Graph {
      * @return {@code true} if the graph changed as a result of this call, false otherwise (i.e. if
      *         the edge is already present)
      * @throws IllegalArgumentException if a specified vertex does not exist
-     * @implSpec This method should run in O(max(deg(u), deg(v))) time.
+     * @implSpec This method should run in O(max(deg(u), deg(v))) time, or expected O(1) time if
+     *           the graph has an edge index.
      */
     public boolean addEdge(int u, int v, int weight) {
         if (u >= adjListArr.length || u < 0) {
@@ -143,6 +171,9 @@ public class Graph {
             UndirectedEdge y = new UndirectedEdge(v, u, weight);
             adjListArr[u].add(x);
             adjListArr[v].add(y);
+            if (edgeIndex != null) {
+                edgeIndex.put(key(u, v), weight);
+            }
             return true;
         }
     }
@@ -157,7 +188,8 @@ public class Graph {
      * @return the edge weight of {@code u-v}
      * @throws NoSuchElementException if the {@code u-v} edge does not exist
      * @throws IllegalArgumentException if a specified vertex does not exist
-     * @implSpec This method should run in O(max(deg(u), deg(v))) time.
+     * @implSpec This method should run in O(max(deg(u), deg(v))) time, or expected O(1) time if
+     *           the graph has an edge index.
      */
     public int getWeight(int u, int v) {
         if (u >= adjListArr.length || u < 0) {
@@ -166,6 +198,9 @@ public class Graph {
         if (v >= adjListArr.length || v < 0) {
             throw new IllegalArgumentException("vertex v does not exist.");
         }
+        if (edgeIndex != null) {
+            return edgeIndex.get(key(u, v));
+        }
 
         if (!hasEdge(u, v)) {
             throw new NoSuchElementException("edge u-v does not exist.");
@@ -196,4 +231,104 @@ public class Graph {
         }
         return ans;
     }
+
+    /**
+     * Returns the number of edge entries of the specified vertex. A self-loop is stored twice in
+     * its vertex's list, so it counts twice.
+     *
+     * @param v the vertex
+     * @return the degree of {@code v}
+     * @throws IllegalArgumentException if the specified vertex does not exist
+     * @implSpec This method should run in O(1) time.
+     */
+    public int degree(int v) {
+        if (v >= adjListArr.length || v < 0) {
+            throw new IllegalArgumentException("vertex v does not exist.");
+        }
+        return adjListArr[v].size();
+    }
+
+    /**
+     * Calls {@code action} with every neighbor of the specified vertex, without building a set.
+     * A self-loop on v is stored twice, so v is visited twice. The adjacency list is a linked
+     * list, so each call creates one list iterator, and a capturing lambda passed as
+     * {@code action} is one more object per call.
+     *
+     * @param v the vertex
+     * @param action the action to run for each neighbor
+     * @throws IllegalArgumentException if the specified vertex does not exist
+     * @implSpec This method should run in O(deg(v)) time.
+     */
+    public void forEachNeighbor(int v, IntConsumer action) {
+        if (v >= adjListArr.length || v < 0) {
+            throw new IllegalArgumentException("vertex v does not exist.");
+        }
+        for (UndirectedEdge x: adjListArr[v]) {
+            action.accept(x.dest);
+        }
+    }
+
+    /**
+     * Calls {@code action} with the neighbor and weight of every edge of the specified vertex,
+     * so callers that need weights do not have to look each one up with {@link #getWeight}.
+     *
+     * @param v the vertex
+     * @param action the action to run for each edge
+     * @throws IllegalArgumentException if the specified vertex does not exist
+     * @implSpec This method should run in O(deg(v)) time.
+     */
+    public void forEachEdge(int v, EdgeConsumer action) {
+        if (v >= adjListArr.length || v < 0) {
+            throw new IllegalArgumentException("vertex v does not exist.");
+        }
+        for (UndirectedEdge x: adjListArr[v]) {
+            action.accept(x.dest, x.weight);
+        }
+    }
+
+    /**
+     * Returns an iterator over the neighbors of the specified vertex that yields primitive ints.
+     * The graph must not be modified while the iterator is in use.
+     *
+     * @param v the vertex
+     * @return an iterator over the neighbors of {@code v}
+     * @throws IllegalArgumentException if the specified vertex does not exist
+     */
+    public PrimitiveIterator.OfInt neighborIterator(int v) {
+        if (v >= adjListArr.length || v < 0) {
+            throw new IllegalArgumentException("vertex v does not exist.");
+        }
+        Iterator<UndirectedEdge> iter = adjListArr[v].iterator();
+        return new PrimitiveIterator.OfInt() {
+            @Override
+            public boolean hasNext() {
+                return iter.hasNext();
+            }
+
+            @Override
+            public int nextInt() {
+                return iter.next().dest;
+            }
+        };
+    }
+
+    /**
+     * Negates the weight of every edge, keeping the edge index in sync. Used by
+     * {@link WidestPath} to turn a maximum spanning tree problem into a minimum one.
+     */
+    void negateWeights() {
+        for (int i = 0; i < adjListArr.length; i++) {
+            for (UndirectedEdge e: adjListArr[i]) {
+                e.weight = 0 - e.weight;
+                if (edgeIndex != null && e.src <= e.dest) {
+                    edgeIndex.put(key(e.src, e.dest), e.weight);
+                }
+            }
+        }
+    }
+
+    // Packs an unordered vertex pair into a single index key, smaller vertex in the high half.
+    static long key(int u, int v) {
+        return u < v ? ((long) u << 32) | v : ((long) v << 32) | u;
+    }
 }
@@ -0,0 +1,379 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Facade for building graphs from edge-list files in bulk. The file is memory-mapped in chunks
+ * that are parsed in parallel, and the parsed arcs are grouped by source with a counting sort
+ * (a degree-counting pass followed by a fill pass), then sorted and deduplicated per vertex.
+ * Adjacency lists are filled straight from the result, so no edge goes through
+ * {@code addEdge} and its per-edge {@code hasEdge} scan.
+ * <p/>
+ * When an edge appears more than once, the first occurrence in the file wins, which matches
+ * what calling {@code addEdge} line by line would do. Vertices are numbered from 0, and the
+ * graph has one more vertex than the largest id in the file.
+ */
+public final class GraphLoader {
+    private GraphLoader() {}
+
+    // Text chunks are cut at the first newline after each multiple of this many bytes.
+    private static final int CHUNK_SIZE = 64 << 20;
+
+    /**
+     * The supported edge-list file formats.
+     */
+    public enum Format {
+        /**
+         * One edge per line as {@code u v} or {@code u v weight}, separated by spaces or tabs.
+         * Edges without a weight get weight 1. Blank lines and lines starting with {@code #} or
+         * {@code %} are skipped.
+         */
+        TEXT(0),
+        /**
+         * Fixed 8-byte records of two little-endian ints {@code u v}. Every edge gets weight 1.
+         */
+        BINARY(8),
+        /**
+         * Fixed 16-byte records of two little-endian ints {@code u v} followed by a
+         * little-endian double weight.
+         */
+        WEIGHTED_BINARY(16);
+
+        final int recordSize;
+
+        Format(int recordSize) {
+            this.recordSize = recordSize;
+        }
+    }
+
+    /**
+     * Loads an undirected graph. Weights are truncated to ints.
+     *
+     * @param path the edge-list file
+     * @param format the format of the file
+     * @return a new {@link Graph} containing every edge in the file
+     * @throws IllegalArgumentException if an argument is null or the file is malformed
+     * @throws IOException if the file cannot be read
+     */
+    public static Graph loadGraph(Path path, Format format) throws IOException {
+        return toGraph(loadCSRGraph(path, format, false));
+    }
+
+    /**
+     * Loads a directed graph.
+     *
+     * @param path the edge-list file
+     * @param format the format of the file
+     * @return a new {@link WDGraph} containing every edge in the file
+     * @throws IllegalArgumentException if an argument is null, the file is malformed or it
+     *                                  contains a self-loop
+     * @throws IOException if the file cannot be read
+     */
+    public static WDGraph loadWDGraph(Path path, Format format) throws IOException {
+        return toWDGraph(loadCSRGraph(path, format, true));
+    }
+
+    /**
+     * Loads a graph in CSR form, which skips building adjacency lists entirely.
+     *
+     * @param path the edge-list file
+     * @param format the format of the file
+     * @param directed whether each line is an arc {@code u->v} rather than an edge {@code u-v}
+     * @return a new {@link CSRGraph} containing every edge in the file
+     * @throws IllegalArgumentException if an argument is null or the file is malformed
+     * @throws IOException if the file cannot be read
+     */
+    public static CSRGraph loadCSRGraph(Path path, Format format, boolean directed)
+            throws IOException {
+        if (path == null || format == null) {
+            throw new IllegalArgumentException("path or format is null");
+        }
+        List<Arcs> chunks;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] bounds = format == Format.TEXT ? textBounds(channel)
+                    : recordBounds(channel.size(), format.recordSize);
+            try {
+                chunks = IntStream.range(0, bounds.length - 1).parallel()
+                        .mapToObj(i -> parseChunk(channel, bounds[i], bounds[i + 1], format))
+                        .collect(Collectors.toList());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+
+        long total = 0;
+        int n = 0;
+        for (Arcs c : chunks) {
+            total += c.m;
+            n = Math.max(n, c.maxId + 1);
+        }
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("too many edges");
+        }
+        int m = (int) total;
+        int[] src = new int[m];
+        int[] dst = new int[m];
+        double[] w = new double[m];
+        int i = 0;
+        for (Arcs c : chunks) {
+            System.arraycopy(c.src, 0, src, i, c.m);
+            System.arraycopy(c.dst, 0, dst, i, c.m);
+            System.arraycopy(c.w, 0, w, i, c.m);
+            i += c.m;
+        }
+        return CSRGraph.fromArcs(n, directed, src, dst, w, m, !directed);
+    }
+
+    /**
+     * Copies an undirected CSR graph into a new {@link Graph}. Weights are truncated to ints. A
+     * self-loop is stored once in a CSR row but twice in a Graph list, as addEdge does.
+     */
+    static Graph toGraph(CSRGraph csr) {
+        int n = csr.getSize();
+        Graph g = new Graph(n);
+        for (int u = 0; u < n; u++) {
+            for (int e = csr.offsets[u]; e < csr.offsets[u + 1]; e++) {
+                int w = (int) csr.weights[e];
+                g.adjListArr[u].add(g.new UndirectedEdge(u, csr.targets[e], w));
+                if (csr.targets[e] == u) {
+                    g.adjListArr[u].add(g.new UndirectedEdge(u, u, w));
+                }
+            }
+        }
+        return g;
+    }
+
+    /**
+     * Copies a directed CSR graph into a new {@link WDGraph} whose adjacency lists are sized
+     * exactly to each vertex's in- and out-degree.
+     *
+     * @throws IllegalArgumentException if the graph has a self-loop
+     */
+    static WDGraph toWDGraph(CSRGraph csr) {
+        int n = csr.getSize();
+        int[] inDegree = new int[n];
+        for (int u = 0; u < n; u++) {
+            for (int e = csr.offsets[u]; e < csr.offsets[u + 1]; e++) {
+                if (csr.targets[e] == u) {
+                    throw new IllegalArgumentException("no self-loops allowed");
+                }
+                inDegree[csr.targets[e]]++;
+            }
+        }
+        WDGraph g = new WDGraph(n);
+        for (int v = 0; v < n; v++) {
+            g.adjOutListArr[v] = new ArrayList<>(csr.offsets[v + 1] - csr.offsets[v]);
+            g.adjInListArr[v] = new ArrayList<>(inDegree[v]);
+        }
+        for (int u = 0; u < n; u++) {
+            for (int e = csr.offsets[u]; e < csr.offsets[u + 1]; e++) {
+                int v = csr.targets[e];
+                g.adjOutListArr[u].add(g.new Edge(v, csr.weights[e]));
+                g.adjInListArr[v].add(g.new Edge(u, csr.weights[e]));
+            }
+        }
+        return g;
+    }
+
+    // Splits a text file at the first newline after every CHUNK_SIZE bytes, so no line
+    // straddles two chunks.
+    private static long[] textBounds(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer buf = ByteBuffer.allocate(4096);
+        long pos = CHUNK_SIZE;
+        while (pos < size) {
+            long cut = size;
+            long p = pos;
+            search:
+            while (p < size) {
+                buf.clear();
+                int read = channel.read(buf, p);
+                if (read <= 0) {
+                    break;
+                }
+                for (int k = 0; k < read; k++) {
+                    if (buf.get(k) == '\n') {
+                        cut = p + k + 1;
+                        break search;
+                    }
+                }
+                p += read;
+            }
+            if (cut >= size) {
+                break;
+            }
+            bounds.add(cut);
+            pos = cut + CHUNK_SIZE;
+        }
+        bounds.add(size);
+        long[] ans = new long[bounds.size()];
+        for (int i = 0; i < ans.length; i++) {
+            ans[i] = bounds.get(i);
+        }
+        return ans;
+    }
+
+    private static long[] recordBounds(long size, int recordSize) {
+        if (size % recordSize != 0) {
+            throw new IllegalArgumentException("file size is not a multiple of the record size");
+        }
+        long chunk = CHUNK_SIZE - CHUNK_SIZE % recordSize;
+        int count = (int) Math.max(1, (size + chunk - 1) / chunk);
+        long[] ans = new long[count + 1];
+        for (int i = 0; i <= count; i++) {
+            ans[i] = Math.min(size, i * chunk);
+        }
+        return ans;
+    }
+
+    private static Arcs parseChunk(FileChannel channel, long start, long end, Format format) {
+        MappedByteBuffer buf;
+        try {
+            buf = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (format == Format.TEXT) {
+            return parseText(buf);
+        }
+        buf.order(ByteOrder.LITTLE_ENDIAN);
+        int records = buf.remaining() / format.recordSize;
+        Arcs ans = new Arcs(records);
+        for (int r = 0; r < records; r++) {
+            int u = buf.getInt();
+            int v = buf.getInt();
+            double w = format == Format.WEIGHTED_BINARY ? buf.getDouble() : 1;
+            ans.add(u, v, w);
+        }
+        return ans;
+    }
+
+    private static Arcs parseText(ByteBuffer buf) {
+        Arcs ans = new Arcs(buf.remaining() / 12 + 16);
+        int end = buf.limit();
+        int p = 0;
+        while (p < end) {
+            int lineEnd = p;
+            while (lineEnd < end && buf.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int q = skipBlanks(buf, p, lineEnd);
+            if (q < lineEnd && buf.get(q) != '#' && buf.get(q) != '%') {
+                long u = parseId(buf, q, lineEnd);
+                q = skipBlanks(buf, (int) (u >>> 32), lineEnd);
+                long v = parseId(buf, q, lineEnd);
+                q = skipBlanks(buf, (int) (v >>> 32), lineEnd);
+                double w = 1;
+                if (q < lineEnd) {
+                    int tokenEnd = q;
+                    while (tokenEnd < lineEnd && !isBlank(buf.get(tokenEnd))) {
+                        tokenEnd++;
+                    }
+                    w = parseWeight(buf, q, tokenEnd);
+                    if (skipBlanks(buf, tokenEnd, lineEnd) != lineEnd) {
+                        throw malformed(buf, p, lineEnd);
+                    }
+                }
+                ans.add((int) u, (int) v, w);
+            }
+            p = lineEnd + 1;
+        }
+        return ans;
+    }
+
+    // Parses a non-negative int starting at p. Returns the position after it in the high half
+    // and the value in the low half.
+    private static long parseId(ByteBuffer buf, int p, int lineEnd) {
+        int start = p;
+        long x = 0;
+        while (p < lineEnd && buf.get(p) >= '0' && buf.get(p) <= '9') {
+            x = x * 10 + (buf.get(p) - '0');
+            if (x > Integer.MAX_VALUE - 1) {
+                throw malformed(buf, start, lineEnd);
+            }
+            p++;
+        }
+        if (p == start || (p < lineEnd && !isBlank(buf.get(p)))) {
+            throw malformed(buf, start, lineEnd);
+        }
+        return ((long) p << 32) | x;
+    }
+
+    private static double parseWeight(ByteBuffer buf, int p, int end) {
+        byte[] token = new byte[end - p];
+        for (int k = 0; k < token.length; k++) {
+            token[k] = buf.get(p + k);
+        }
+        String s = new String(token, StandardCharsets.US_ASCII);
+        try {
+            return Double.parseDouble(s);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("malformed weight: " + s);
+        }
+    }
+
+    private static int skipBlanks(ByteBuffer buf, int p, int end) {
+        while (p < end && isBlank(buf.get(p))) {
+            p++;
+        }
+        return p;
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    private static IllegalArgumentException malformed(ByteBuffer buf, int p, int end) {
+        byte[] line = new byte[Math.min(end - p, 200)];
+        for (int k = 0; k < line.length; k++) {
+            line[k] = buf.get(p + k);
+        }
+        return new IllegalArgumentException("malformed edge: "
+                + new String(line, StandardCharsets.US_ASCII));
+    }
+
+    // The arcs parsed from one chunk, in file order.
+    private static final class Arcs {
+        int[] src;
+        int[] dst;
+        double[] w;
+        int m;
+        int maxId = -1;
+
+        Arcs(int capacity) {
+            src = new int[capacity];
+            dst = new int[capacity];
+            w = new double[capacity];
+        }
+
+        void add(int u, int v, double weight) {
+            if (u < 0 || v < 0) {
+                throw new IllegalArgumentException("vertex id is negative");
+            }
+            if (m == src.length) {
+                int capacity = Math.max(16, src.length * 2);
+                src = Arrays.copyOf(src, capacity);
+                dst = Arrays.copyOf(dst, capacity);
+                w = Arrays.copyOf(w, capacity);
+            }
+            src[m] = u;
+            dst[m] = v;
+            w[m] = weight;
+            m++;
+            maxId = Math.max(maxId, Math.max(u, v));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * The slice of a partitioned directed graph owned by one shard: the out-edges of every vertex
+ * the {@link Partitioner} assigns to the shard, in CSR form. Rows are indexed by local vertex
+ * index, and edge targets are global vertex ids, since they may belong to any shard.
+ */
+public final class GraphShard {
+    final Partitioner partitioner;
+    final int shard;
+    // The out-edges of the local vertex i are at offsets[i] through offsets[i + 1] - 1.
+    final int[] offsets;
+    final int[] targets;
+    final double[] weights;
+
+    private GraphShard(Partitioner partitioner, int shard, CSRGraph rows) {
+        this.partitioner = partitioner;
+        this.shard = shard;
+        this.offsets = rows.offsets;
+        this.targets = rows.targets;
+        this.weights = rows.weights;
+    }
+
+    /**
+     * Builds a shard from the first {@code m} entries of parallel arc arrays, keeping only the
+     * arcs whose source the shard owns. Each process can pass just the arcs it read from its own
+     * part of the input, so no process ever needs the whole graph. Duplicate arcs keep the
+     * weight of the first occurrence.
+     *
+     * @param partitioner the partitioner used by every shard
+     * @param shard the shard to build
+     * @param src the arc sources
+     * @param dst the arc targets
+     * @param w the arc weights
+     * @param m the number of arcs to read from the arrays
+     * @return the shard
+     * @throws IllegalArgumentException if an argument is null, the shard does not exist or an
+     *                                  arc has a vertex that does not exist
+     */
+    public static GraphShard fromArcs(Partitioner partitioner, int shard, int[] src, int[] dst,
+                                      double[] w, int m) {
+        if (partitioner == null || src == null || dst == null || w == null) {
+            throw new IllegalArgumentException("argument is null");
+        }
+        partitioner.checkShard(shard);
+        int count = 0;
+        for (int i = 0; i < m; i++) {
+            partitioner.checkVertex(dst[i]);
+            if (partitioner.shardOf(src[i]) == shard) {
+                count++;
+            }
+        }
+        int[] localSrc = new int[count];
+        int[] globalDst = new int[count];
+        double[] weights = new double[count];
+        int k = 0;
+        for (int i = 0; i < m; i++) {
+            if (partitioner.shardOf(src[i]) == shard) {
+                localSrc[k] = partitioner.localIndex(src[i]);
+                globalDst[k] = dst[i];
+                weights[k] = w[i];
+                k++;
+            }
+        }
+        CSRGraph rows = CSRGraph.fromArcs(partitioner.shardSize(shard), true, localSrc,
+                globalDst, weights, count, false);
+        return new GraphShard(partitioner, shard, rows);
+    }
+
+    /**
+     * @return the shard this slice belongs to
+     */
+    public int shard() {
+        return shard;
+    }
+
+    /**
+     * @return the number of vertices this shard owns
+     */
+    public int numLocalVertices() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * @return the number of out-edges stored in this shard
+     */
+    public int numArcs() {
+        return targets.length;
+    }
+}
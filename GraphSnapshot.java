@@ -0,0 +1,131 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Facade for writing graphs to a compact binary snapshot that {@link MappedGraph} can
+ * memory-map and query without building per-edge objects. All values are little-endian:
+ * <pre>
+ * header   magic "GSNP", version, flags, n (4 ints), out-arc count m (long), in-arc count (long)
+ * offsets  n + 1 longs; the out-edges of v are arcs offsets[v] to offsets[v + 1] - 1
+ * targets  m ints, each row sorted increasingly
+ * weights  m doubles
+ * </pre>
+ * If the in-edge index flag is set, the same three sections follow again for the in-edges of
+ * every vertex, with sources in place of targets. Every section starts at a multiple of 8
+ * bytes, so no value straddles a mapping window in the reader.
+ */
+public final class GraphSnapshot {
+    private GraphSnapshot() {}
+
+    static final int MAGIC = 0x504e5347; // "GSNP" read as a little-endian int
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int DIRECTED = 1;
+    static final int IN_INDEX = 2;
+
+    /**
+     * Writes an undirected graph. Each edge is stored under both endpoints.
+     *
+     * @param g the graph
+     * @param path the file to create or overwrite
+     * @throws IllegalArgumentException if an argument is null
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Graph g, Path path) throws IOException {
+        if (g == null) {
+            throw new IllegalArgumentException("graph is null");
+        }
+        write(CSRGraph.fromGraph(g), null, path);
+    }
+
+    /**
+     * Writes a directed graph, optionally with an in-edge index so that the reader can answer
+     * {@link MappedGraph#forEachInEdge} the way {@link WDGraph#forEachInEdge} does.
+     *
+     * @param g the graph
+     * @param path the file to create or overwrite
+     * @param inIndex whether to also store the in-edges of every vertex
+     * @throws IllegalArgumentException if an argument is null
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(WDGraph g, Path path, boolean inIndex) throws IOException {
+        if (g == null) {
+            throw new IllegalArgumentException("graph is null");
+        }
+        CSRGraph out = CSRGraph.fromWDGraph(g);
+        write(out, inIndex ? out.transpose() : null, path);
+    }
+
+    /**
+     * Writes a CSR graph. A directed graph is written without an in-edge index.
+     *
+     * @param g the graph
+     * @param path the file to create or overwrite
+     * @throws IllegalArgumentException if an argument is null
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(CSRGraph g, Path path) throws IOException {
+        if (g == null) {
+            throw new IllegalArgumentException("graph is null");
+        }
+        write(g, null, path);
+    }
+
+    private static void write(CSRGraph out, CSRGraph in, Path path) throws IOException {
+        if (path == null) {
+            throw new IllegalArgumentException("path is null");
+        }
+        int flags = (out.isDirected() ? DIRECTED : 0) | (in != null ? IN_INDEX : 0);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+            buf.putInt(MAGIC).putInt(VERSION).putInt(flags).putInt(out.getSize());
+            buf.putLong(out.numArcs()).putLong(in != null ? in.numArcs() : 0);
+            writeRows(channel, buf, out);
+            if (in != null) {
+                writeRows(channel, buf, in);
+            }
+            flush(channel, buf);
+            channel.force(false);
+        }
+    }
+
+    private static void writeRows(FileChannel channel, ByteBuffer buf, CSRGraph g)
+            throws IOException {
+        for (int v = 0; v <= g.getSize(); v++) {
+            ensureRoom(channel, buf, 8);
+            buf.putLong(g.offsets[v]);
+        }
+        for (int t : g.targets) {
+            ensureRoom(channel, buf, 4);
+            buf.putInt(t);
+        }
+        if (g.targets.length % 2 != 0) {
+            ensureRoom(channel, buf, 4);
+            buf.putInt(0);
+        }
+        for (double w : g.weights) {
+            ensureRoom(channel, buf, 8);
+            buf.putDouble(w);
+        }
+    }
+
+    private static void ensureRoom(FileChannel channel, ByteBuffer buf, int bytes)
+            throws IOException {
+        if (buf.remaining() < bytes) {
+            flush(channel, buf);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+        buf.clear();
+    }
+}
@@ -0,0 +1,178 @@
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * A deque of primitive {@code int}s backed by a circular array whose length is always a power of
+ * two, so wrapping an index is a single mask. It supports the same operations as
+ * {@link ResizingDequeInterface} without boxing: adding or removing an element never allocates,
+ * and the array only grows (by doubling) when it is full.
+ */
+public class IntDeque {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    int[] arr;
+    int head;
+    int size;
+
+    public IntDeque() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param initialCapacity the number of elements to hold before the first resize
+     * @throws IllegalArgumentException if {@code initialCapacity} is negative or larger than
+     *                                  {@code 1 << 30}, the largest power-of-two array length
+     */
+    public IntDeque(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("initialCapacity is negative");
+        }
+        if (initialCapacity > 1 << 30) {
+            throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        }
+        int capacity = 1;
+        while (capacity < initialCapacity) {
+            capacity <<= 1;
+        }
+        arr = new int[capacity];
+    }
+
+    /**
+     * @return the number of elements in this deque
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if this deque is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every element. The backing array is kept for reuse.
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Inserts the specified element at the front of this deque.
+     *
+     * @param e the element to add
+     */
+    public void addFirst(int e) {
+        if (size == arr.length) {
+            grow();
+        }
+        head = (head - 1) & (arr.length - 1);
+        arr[head] = e;
+        size++;
+    }
+
+    /**
+     * Inserts the specified element at the end of this deque.
+     *
+     * @param e the element to add
+     */
+    public void addLast(int e) {
+        if (size == arr.length) {
+            grow();
+        }
+        arr[(head + size) & (arr.length - 1)] = e;
+        size++;
+    }
+
+    /**
+     * Retrieves and removes the first element of this deque.
+     *
+     * @throws NoSuchElementException if the deque is empty.
+     */
+    public int pollFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException("deque is empty");
+        }
+        int ans = arr[head];
+        head = (head + 1) & (arr.length - 1);
+        size--;
+        return ans;
+    }
+
+    /**
+     * Retrieves and removes the last element of this deque.
+     *
+     * @throws NoSuchElementException if the deque is empty.
+     */
+    public int pollLast() {
+        if (size == 0) {
+            throw new NoSuchElementException("deque is empty");
+        }
+        size--;
+        return arr[(head + size) & (arr.length - 1)];
+    }
+
+    /**
+     * Retrieves, but does not remove, the first element of this deque.
+     *
+     * @throws NoSuchElementException if the deque is empty.
+     */
+    public int peekFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException("deque is empty");
+        }
+        return arr[head];
+    }
+
+    /**
+     * Retrieves, but does not remove, the last element of this deque.
+     *
+     * @throws NoSuchElementException if the deque is empty.
+     */
+    public int peekLast() {
+        if (size == 0) {
+            throw new NoSuchElementException("deque is empty");
+        }
+        return arr[(head + size - 1) & (arr.length - 1)];
+    }
+
+    /**
+     * Returns an iterator over the elements in this deque, ordered from first to last.
+     *
+     * @return an iterator over the elements in this deque
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return i < size;
+            }
+
+            @Override
+            public int nextInt() {
+                if (i >= size) {
+                    throw new NoSuchElementException("no more elements");
+                }
+                return arr[(head + i++) & (arr.length - 1)];
+            }
+        };
+    }
+
+    // Doubles the array, unrolling the elements so that head is at index 0.
+    private void grow() {
+        int newLength = arr.length * 2;
+        if (newLength < 0) {
+            throw new IllegalStateException("deque is too large");
+        }
+        int[] temp = new int[newLength];
+        int firstPart = Math.min(size, arr.length - head);
+        System.arraycopy(arr, head, temp, 0, firstPart);
+        System.arraycopy(arr, 0, temp, firstPart, size - firstPart);
+        arr = temp;
+        head = 0;
+    }
+}
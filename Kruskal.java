@@ -41,6 +41,87 @@ public final class Kruskal {
         return ans;
     }
 
+    /**
+     * Finds a minimum spanning tree (or forest) of the specified undirected CSR graph. Edges are
+     * read from the CSR arrays and sorted as primitive indices, so no edge objects are created.
+     *
+     * @param g the graph
+     * @return a new undirected {@link CSRGraph} containing the same vertices as the specified
+     *         graph, but with only the edges on the minimum spanning tree.
+     * @throws IllegalArgumentException if the specified graph is null or directed
+     * @implSpec This method runs in O(m log m) time.
+     */
+    public static CSRGraph getMST(CSRGraph g) {
+        if (g == null) {
+            throw new IllegalArgumentException("graph is null");
+        }
+        if (g.isDirected()) {
+            throw new IllegalArgumentException("graph is directed");
+        }
+        int n = g.getSize();
+        // Every undirected edge u-v is stored twice; keep only the u < v copy.
+        int[] edges = new int[g.numArcs()];
+        int m = 0;
+        for (int u = 0; u < n; u++) {
+            for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+                if (u < g.targets[e]) {
+                    edges[m++] = e;
+                }
+            }
+        }
+        int[] sources = new int[g.numArcs()];
+        for (int u = 0; u < n; u++) {
+            Arrays.fill(sources, g.offsets[u], g.offsets[u + 1], u);
+        }
+        sortByWeight(edges, m, g.weights);
+
+        UnionFind disjointSets = new UnionFind(n);
+        int[] src = new int[Math.max(0, n - 1)];
+        int[] dst = new int[src.length];
+        double[] w = new double[src.length];
+        int k = 0;
+        for (int i = 0; i < m && k < src.length; i++) {
+            int e = edges[i];
+            int u = sources[e];
+            int v = g.targets[e];
+            if (disjointSets.find(u) != disjointSets.find(v)) {
+                disjointSets.union(u, v);
+                src[k] = u;
+                dst[k] = v;
+                w[k] = g.weights[e];
+                k++;
+            }
+        }
+        return CSRGraph.fromArcs(n, false, src, dst, w, k, true);
+    }
+
+    // Stable bottom-up merge sort of the first m edge positions by weight.
+    private static void sortByWeight(int[] edges, int m, double[] weights) {
+        int[] a = edges;
+        int[] b = new int[m];
+        for (int width = 1; width < m; width *= 2) {
+            for (int lo = 0; lo < m; lo += 2 * width) {
+                int mid = Math.min(lo + width, m);
+                int hi = Math.min(lo + 2 * width, m);
+                int i = lo;
+                int j = mid;
+                for (int k = lo; k < hi; k++) {
+                    if (j >= hi || (i < mid && weights[a[i]] <= weights[a[j]])) {
+                        b[k] = a[i++];
+                    } else {
+                        b[k] = a[j++];
+                    }
+                }
+            }
+            int[] tmp = a;
+            a = b;
+            b = tmp;
+        }
+        if (a != edges) {
+            System.arraycopy(a, 0, edges, 0, m);
+        }
+    }
+
     /**
      * Returns the set of edges in this graph. Since this is an undirected graph, if an edge {@code
      * u-v} exists in the graph, be sure that you return either an Edge object for the {@code u-v}
@@ -56,16 +137,13 @@ public final class Kruskal {
         }
         Set<Edge> ans = new HashSet<>();
         for (int i = 0; i < g.getSize(); i++) {
-            Set<Integer> neighbors = g.getNeighbors(i);
-            Iterator<Integer> iter = neighbors.iterator();
-            while (iter.hasNext()) {
-                Integer x = iter.next();
-                Edge j = new Edge(i, x, g.getWeight(i, x));
-                Edge k = new Edge(x, i, g.getWeight(x, i));
-                if (!ans.contains(j) && !ans.contains(k)) {
-                    ans.add(j);
+            int u = i;
+            // Every edge is listed under both endpoints; keep the copy seen from the smaller one.
+            g.forEachEdge(u, (x, w) -> {
+                if (u <= x) {
+                    ans.add(new Edge(u, x, (int) w));
                 }
-            }
+            });
         }
         return ans;
     }
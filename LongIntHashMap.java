@@ -0,0 +1,219 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A hash map from primitive {@code long} keys to primitive {@code int} values, using open
+ * addressing with linear probing over two parallel arrays whose length is a power of two. Unlike
+ * {@link HashMap}, an entry is two array slots rather than a node object, and a lookup probes
+ * consecutive slots instead of following a chain, so no operation boxes or allocates apart from
+ * growing the table.
+ * <p/>
+ * Key 0 marks an empty slot in the table, so a mapping for key 0 is kept in its own field.
+ */
+public class LongIntHashMap {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    long[] keys;
+    int[] vals;
+    int size;
+    boolean hasZero;
+    int zeroValue;
+
+    public LongIntHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize the number of mappings to hold before the first resize
+     * @throws IllegalArgumentException if {@code expectedSize} is negative
+     */
+    public LongIntHashMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize is negative");
+        }
+        // The table is kept at most half full so that probe sequences stay short.
+        int capacity = 2;
+        while (capacity < 2L * expectedSize) {
+            capacity <<= 1;
+        }
+        keys = new long[capacity];
+        vals = new int[capacity];
+    }
+
+    /**
+     * @return the number of mappings in this map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if this map has no mappings
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param key the key
+     * @return true if this map has a mapping for the key
+     */
+    public boolean containsKey(long key) {
+        if (key == 0) {
+            return hasZero;
+        }
+        return keys[indexOf(key)] == key;
+    }
+
+    /**
+     * @param key the key
+     * @return the value mapped to the key
+     * @throws NoSuchElementException if there is no mapping for the key
+     */
+    public int get(long key) {
+        if (key == 0) {
+            if (!hasZero) {
+                throw new NoSuchElementException("key is not in the map.");
+            }
+            return zeroValue;
+        }
+        int i = indexOf(key);
+        if (keys[i] != key) {
+            throw new NoSuchElementException("key is not in the map.");
+        }
+        return vals[i];
+    }
+
+    /**
+     * @param key the key
+     * @param defaultValue the value to return if there is no mapping for the key
+     * @return the value mapped to the key, or {@code defaultValue}
+     */
+    public int getOrDefault(long key, int defaultValue) {
+        if (key == 0) {
+            return hasZero ? zeroValue : defaultValue;
+        }
+        int i = indexOf(key);
+        return keys[i] == key ? vals[i] : defaultValue;
+    }
+
+    /**
+     * Maps the key to the value, replacing any previous mapping.
+     *
+     * @param key the key
+     * @param value the value
+     * @return true if the key was not already in the map
+     */
+    public boolean put(long key, int value) {
+        if (key == 0) {
+            boolean added = !hasZero;
+            hasZero = true;
+            zeroValue = value;
+            if (added) {
+                size++;
+            }
+            return added;
+        }
+        int i = indexOf(key);
+        if (keys[i] == key) {
+            vals[i] = value;
+            return false;
+        }
+        keys[i] = key;
+        vals[i] = value;
+        size++;
+        if (2L * size > keys.length) {
+            resize(keys.length << 1);
+        }
+        return true;
+    }
+
+    /**
+     * Removes the mapping for the key, if there is one.
+     *
+     * @param key the key
+     * @return true if the map changed as a result of this call
+     */
+    public boolean remove(long key) {
+        if (key == 0) {
+            boolean removed = hasZero;
+            hasZero = false;
+            if (removed) {
+                size--;
+            }
+            return removed;
+        }
+        int mask = keys.length - 1;
+        int i = indexOf(key);
+        if (keys[i] != key) {
+            return false;
+        }
+        // Backward-shift deletion: pull later entries of the probe run into the hole so every
+        // remaining key is still reachable from its home slot without tombstones.
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (keys[j] == 0) {
+                break;
+            }
+            int home = mix(keys[j]) & mask;
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                keys[i] = keys[j];
+                vals[i] = vals[j];
+                i = j;
+            }
+        }
+        keys[i] = 0;
+        size--;
+        return true;
+    }
+
+    /**
+     * Removes every mapping. The backing arrays are kept for reuse.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        hasZero = false;
+        size = 0;
+    }
+
+    // Returns the slot holding key, or the empty slot where it would be inserted.
+    private int indexOf(long key) {
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while (keys[i] != 0 && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldVals = vals;
+        keys = new long[capacity];
+        vals = new int[capacity];
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            long key = oldKeys[j];
+            if (key != 0) {
+                int i = mix(key) & mask;
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                vals[i] = oldVals[j];
+            }
+        }
+    }
+
+    // The MurmurHash3 64-bit finalizer, so that packed keys differing only in their high or low
+    // half still spread over the whole table.
+    private static int mix(long x) {
+        x ^= x >>> 33;
+        x *= 0xff51afd7ed558ccdL;
+        x ^= x >>> 33;
+        x *= 0xc4ceb9fe1a85ec53L;
+        x ^= x >>> 33;
+        return (int) x;
+    }
+}
@@ -0,0 +1,66 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link Transport} for shards that all live in the current process, such as tests and
+ * single-machine runs of a {@link PartitionedGraph}. Batches are handed over by reference, and
+ * the barrier is a plain method call.
+ */
+public class LoopbackTransport implements Transport {
+    // pending.get(i) and delivered.get(i) hold the batches addressed to shard i.
+    private final List<List<MessageBatch>> pending;
+    private final List<List<MessageBatch>> delivered;
+    private long messagesSent;
+
+    /**
+     * @param numShards the number of shards
+     * @throws IllegalArgumentException if {@code numShards} is not positive
+     */
+    public LoopbackTransport(int numShards) {
+        if (numShards <= 0) {
+            throw new IllegalArgumentException("number of shards is not positive");
+        }
+        pending = new ArrayList<>(numShards);
+        delivered = new ArrayList<>(numShards);
+        for (int i = 0; i < numShards; i++) {
+            pending.add(new ArrayList<>());
+            delivered.add(new ArrayList<>());
+        }
+    }
+
+    @Override
+    public void send(int toShard, MessageBatch batch) {
+        if (toShard < 0 || toShard >= pending.size()) {
+            throw new IllegalArgumentException("shard " + toShard + " does not exist.");
+        }
+        pending.get(toShard).add(batch);
+        messagesSent += batch.size();
+    }
+
+    @Override
+    public boolean endSuperstep(boolean active) {
+        boolean sent = false;
+        for (int i = 0; i < pending.size(); i++) {
+            List<MessageBatch> batches = pending.get(i);
+            sent |= !batches.isEmpty();
+            delivered.get(i).addAll(batches);
+            batches.clear();
+        }
+        return active || sent;
+    }
+
+    @Override
+    public List<MessageBatch> receive(int shard) {
+        List<MessageBatch> ans = new ArrayList<>(delivered.get(shard));
+        delivered.get(shard).clear();
+        return ans;
+    }
+
+    /**
+     * @return the total number of messages sent through this transport, a measure of how much
+     *         traffic the partitioning causes
+     */
+    public long messagesSent() {
+        return messagesSent;
+    }
+}
@@ -0,0 +1,340 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+/**
+ * A read-only graph served straight from a memory-mapped {@link GraphSnapshot} file. Opening a
+ * snapshot only maps it, so startup takes time proportional to the number of mapping windows
+ * rather than the number of edges, and pages are loaded by the operating system as they are
+ * first touched.
+ * <p/>
+ * The file is mapped in windows of 1 GB, so sections larger than 2 GB are supported and edge
+ * positions are longs. Queries follow {@link CSRGraph}: loop over positions with
+ * {@link #firstEdge}, {@link #endEdge}, {@link #target} and {@link #weight}, or use the
+ * {@code forEach} methods.
+ */
+public final class MappedGraph implements Closeable {
+    private static final int WINDOW_BITS = 30;
+    private static final long WINDOW_MASK = (1L << WINDOW_BITS) - 1;
+
+    private final FileChannel channel;
+    private MappedByteBuffer[] windows;
+    private final int numVert;
+    private final boolean directed;
+    private final long numArcs;
+    private final long numInArcs;
+    // File positions of the sections; the in-edge ones are -1 without an in-edge index.
+    private final long offsetsPos;
+    private final long targetsPos;
+    private final long weightsPos;
+    private final long inOffsetsPos;
+    private final long inSourcesPos;
+    private final long inWeightsPos;
+
+    private MappedGraph(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long size = channel.size();
+        int count = (int) ((size + WINDOW_MASK) >>> WINDOW_BITS);
+        windows = new MappedByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long start = (long) i << WINDOW_BITS;
+            windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                    Math.min(size - start, 1L << WINDOW_BITS));
+            windows[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+        if (size < GraphSnapshot.HEADER_SIZE || getInt(0) != GraphSnapshot.MAGIC) {
+            throw new IllegalArgumentException("file is not a graph snapshot");
+        }
+        if (getInt(4) != GraphSnapshot.VERSION) {
+            throw new IllegalArgumentException("unsupported snapshot version " + getInt(4));
+        }
+        int flags = getInt(8);
+        numVert = getInt(12);
+        numArcs = getLong(16);
+        numInArcs = getLong(24);
+        directed = (flags & GraphSnapshot.DIRECTED) != 0;
+        offsetsPos = GraphSnapshot.HEADER_SIZE;
+        targetsPos = offsetsPos + 8L * (numVert + 1);
+        weightsPos = targetsPos + align(4 * numArcs);
+        long end = weightsPos + 8 * numArcs;
+        if ((flags & GraphSnapshot.IN_INDEX) != 0) {
+            inOffsetsPos = end;
+            inSourcesPos = inOffsetsPos + 8L * (numVert + 1);
+            inWeightsPos = inSourcesPos + align(4 * numInArcs);
+            end = inWeightsPos + 8 * numInArcs;
+        } else {
+            inOffsetsPos = -1;
+            inSourcesPos = -1;
+            inWeightsPos = -1;
+        }
+        if (numVert < 0 || end != size) {
+            throw new IllegalArgumentException("snapshot is truncated or corrupt");
+        }
+    }
+
+    /**
+     * Memory-maps a snapshot written by {@link GraphSnapshot}.
+     *
+     * @param path the snapshot file
+     * @return a graph backed by the file
+     * @throws IllegalArgumentException if path is null or the file is not a valid snapshot
+     * @throws IOException if the file cannot be read
+     */
+    public static MappedGraph open(Path path) throws IOException {
+        if (path == null) {
+            throw new IllegalArgumentException("path is null");
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new MappedGraph(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of vertices in the graph
+     */
+    public int getSize() {
+        return numVert;
+    }
+
+    /**
+     * @return true if the graph is directed
+     */
+    public boolean isDirected() {
+        return directed;
+    }
+
+    /**
+     * @return true if the snapshot stores the in-edges of every vertex
+     */
+    public boolean hasInIndex() {
+        return inOffsetsPos >= 0;
+    }
+
+    /**
+     * @return the number of stored arcs; an undirected edge between two different vertices
+     *         counts twice
+     */
+    public long numArcs() {
+        return numArcs;
+    }
+
+    /**
+     * @param v the vertex
+     * @return the number of (out-)neighbors of {@code v}
+     * @throws IllegalArgumentException if the specified vertex does not exist
+     */
+    public int degree(int v) {
+        checkVertex(v);
+        return (int) (getLong(offsetsPos + 8L * (v + 1)) - getLong(offsetsPos + 8L * v));
+    }
+
+    /**
+     * @param v the vertex
+     * @return the number of in-neighbors of {@code v}
+     * @throws IllegalArgumentException if the specified vertex does not exist
+     * @throws IllegalStateException if the snapshot has no in-edge index
+     */
+    public int inDegree(int v) {
+        checkVertex(v);
+        checkInIndex();
+        return (int) (getLong(inOffsetsPos + 8L * (v + 1)) - getLong(inOffsetsPos + 8L * v));
+    }
+
+    /**
+     * @param v the vertex
+     * @return the position of the first out-edge of {@code v}
+     * @throws IllegalArgumentException if the specified vertex does not exist
+     */
+    public long firstEdge(int v) {
+        checkVertex(v);
+        return getLong(offsetsPos + 8L * v);
+    }
+
+    /**
+     * @param v the vertex
+     * @return one past the position of the last out-edge of {@code v}
+     * @throws IllegalArgumentException if the specified vertex does not exist
+     */
+    public long endEdge(int v) {
+        checkVertex(v);
+        return getLong(offsetsPos + 8L * (v + 1));
+    }
+
+    /**
+     * @param e an edge position
+     * @return the vertex edge {@code e} points to
+     */
+    public int target(long e) {
+        return getInt(targetsPos + 4 * e);
+    }
+
+    /**
+     * @param e an edge position
+     * @return the weight of edge {@code e}
+     */
+    public double weight(long e) {
+        return getDouble(weightsPos + 8 * e);
+    }
+
+    /**
+     * Calls {@code action} with every (out-)neighbor of {@code v}, in increasing order.
+     *
+     * @param v the vertex
+     * @param action the action to run for each neighbor
+     * @throws IllegalArgumentException if the specified vertex does not exist
+     */
+    public void forEachNeighbor(int v, IntConsumer action) {
+        long end = endEdge(v);
+        for (long e = firstEdge(v); e < end; e++) {
+            action.accept(target(e));
+        }
+    }
+
+    /**
+     * Calls {@code action} with the target and weight of every (out-)edge of {@code v}.
+     *
+     * @param v the vertex
+     * @param action the action to run for each edge
+     * @throws IllegalArgumentException if the specified vertex does not exist
+     */
+    public void forEachOutEdge(int v, EdgeConsumer action) {
+        long end = endEdge(v);
+        for (long e = firstEdge(v); e < end; e++) {
+            action.accept(target(e), weight(e));
+        }
+    }
+
+    /**
+     * Calls {@code action} with the source and weight of every in-edge of {@code v}.
+     *
+     * @param v the vertex
+     * @param action the action to run for each in-edge
+     * @throws IllegalArgumentException if the specified vertex does not exist
+     * @throws IllegalStateException if the snapshot has no in-edge index
+     */
+    public void forEachInEdge(int v, EdgeConsumer action) {
+        checkVertex(v);
+        checkInIndex();
+        long end = getLong(inOffsetsPos + 8L * (v + 1));
+        for (long e = getLong(inOffsetsPos + 8L * v); e < end; e++) {
+            action.accept(getInt(inSourcesPos + 4 * e), getDouble(inWeightsPos + 8 * e));
+        }
+    }
+
+    /**
+     * @param u a vertex
+     * @param v a vertex
+     * @return {@code true} if the edge {@code u-v} (or arc {@code u->v}) is in this graph
+     * @throws IllegalArgumentException if a specified vertex does not exist
+     * @implSpec This method runs in O(log(deg(u))) time.
+     */
+    public boolean hasEdge(int u, int v) {
+        checkVertex(v);
+        return indexOf(u, v) >= 0;
+    }
+
+    /**
+     * @param u a vertex
+     * @param v a vertex
+     * @return the weight of the edge {@code u-v} (or arc {@code u->v})
+     * @throws NoSuchElementException if the edge does not exist
+     * @throws IllegalArgumentException if a specified vertex does not exist
+     * @implSpec This method runs in O(log(deg(u))) time.
+     */
+    public double getWeight(int u, int v) {
+        checkVertex(v);
+        long e = indexOf(u, v);
+        if (e < 0) {
+            throw new NoSuchElementException("edge u-v does not exist.");
+        }
+        return weight(e);
+    }
+
+    /**
+     * Copies the out-edges into a heap-resident {@link CSRGraph}.
+     *
+     * @return a CSR graph with the same vertices, edges and weights
+     * @throws IllegalStateException if the graph has too many arcs for a CSRGraph
+     */
+    public CSRGraph toCSRGraph() {
+        if (numArcs > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("graph is too large for a CSRGraph");
+        }
+        int m = (int) numArcs;
+        int[] offsets = new int[numVert + 1];
+        int[] targets = new int[m];
+        double[] weights = new double[m];
+        for (int v = 0; v <= numVert; v++) {
+            offsets[v] = (int) getLong(offsetsPos + 8L * v);
+        }
+        for (int e = 0; e < m; e++) {
+            targets[e] = target(e);
+            weights[e] = weight(e);
+        }
+        return new CSRGraph(numVert, directed, offsets, targets, weights);
+    }
+
+    /**
+     * Closes the underlying file. The mappings are released once they are garbage collected.
+     */
+    @Override
+    public void close() throws IOException {
+        windows = null;
+        channel.close();
+    }
+
+    private long indexOf(int u, int v) {
+        long lo = firstEdge(u);
+        long hi = endEdge(u) - 1;
+        while (lo <= hi) {
+            long mid = (lo + hi) >>> 1;
+            int t = target(mid);
+            if (t < v) {
+                lo = mid + 1;
+            } else if (t > v) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int getInt(long pos) {
+        return windows[(int) (pos >>> WINDOW_BITS)].getInt((int) (pos & WINDOW_MASK));
+    }
+
+    private long getLong(long pos) {
+        return windows[(int) (pos >>> WINDOW_BITS)].getLong((int) (pos & WINDOW_MASK));
+    }
+
+    private double getDouble(long pos) {
+        return windows[(int) (pos >>> WINDOW_BITS)].getDouble((int) (pos & WINDOW_MASK));
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    private void checkInIndex() {
+        if (inOffsetsPos < 0) {
+            throw new IllegalStateException("snapshot has no in-edge index");
+        }
+    }
+
+    private void checkVertex(int v) {
+        if (v < 0 || v >= numVert) {
+            throw new IllegalArgumentException("vertex " + v + " does not exist.");
+        }
+    }
+}
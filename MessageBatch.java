@@ -0,0 +1,99 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A batch of relaxation messages sent from one shard to another during a
+ * {@link PartitionedGraph} traversal. Message {@code i} says that vertex {@code targets[i]} can
+ * be reached with distance {@code values[i]} through vertex {@code sources[i]}. Messages are
+ * kept in parallel primitive arrays so a batch costs 16 bytes per message in memory and on the
+ * wire.
+ */
+public final class MessageBatch {
+    private static final int MESSAGE_SIZE = 16;
+
+    final int fromShard;
+    int[] targets;
+    int[] sources;
+    double[] values;
+    int size;
+
+    /**
+     * @param fromShard the shard that sends this batch
+     */
+    public MessageBatch(int fromShard) {
+        this.fromShard = fromShard;
+        targets = new int[16];
+        sources = new int[16];
+        values = new double[16];
+    }
+
+    /**
+     * @return the shard that sent this batch
+     */
+    public int fromShard() {
+        return fromShard;
+    }
+
+    /**
+     * @return the number of messages in this batch
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Appends a message.
+     *
+     * @param target the vertex being relaxed
+     * @param value the distance of {@code target} through {@code source}
+     * @param source the vertex the message was sent from
+     */
+    public void add(int target, double value, int source) {
+        if (size == targets.length) {
+            int capacity = size * 2;
+            targets = Arrays.copyOf(targets, capacity);
+            sources = Arrays.copyOf(sources, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        targets[size] = target;
+        sources[size] = source;
+        values[size] = value;
+        size++;
+    }
+
+    /**
+     * @return the number of bytes {@link #writeTo} writes
+     */
+    public int encodedSize() {
+        return 8 + MESSAGE_SIZE * size;
+    }
+
+    /**
+     * Serializes this batch, for transports that cross process boundaries.
+     *
+     * @param buf the buffer to write to, with at least {@link #encodedSize()} bytes remaining
+     */
+    public void writeTo(ByteBuffer buf) {
+        buf.putInt(fromShard).putInt(size);
+        for (int i = 0; i < size; i++) {
+            buf.putInt(targets[i]).putInt(sources[i]).putDouble(values[i]);
+        }
+    }
+
+    /**
+     * Reads a batch written by {@link #writeTo}.
+     *
+     * @param buf the buffer to read from
+     * @return the batch
+     */
+    public static MessageBatch readFrom(ByteBuffer buf) {
+        MessageBatch ans = new MessageBatch(buf.getInt());
+        int n = buf.getInt();
+        for (int i = 0; i < n; i++) {
+            int target = buf.getInt();
+            int source = buf.getInt();
+            ans.add(target, buf.getDouble(), source);
+        }
+        return ans;
+    }
+}
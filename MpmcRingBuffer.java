@@ -0,0 +1,178 @@
+import java.util.Collection;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded lock-free queue for any number of producer and consumer threads, following Dmitry
+ * Vyukov's bounded MPMC design. Every slot carries a sequence number that says whose turn it is:
+ * a producer may fill slot {@code pos & mask} when its sequence equals {@code pos}, and a
+ * consumer may empty it when its sequence equals {@code pos + 1}. Producers and consumers claim
+ * positions with a compare-and-swap on their own counter, which lives on its own cache line, and
+ * then hand the slot over with a release store of its sequence.
+ * <p/>
+ * Batch operations are performed one element at a time, so another thread's elements may be
+ * interleaved with a batch.
+ *
+ * @param <E> the type of the elements in the queue
+ */
+public class MpmcRingBuffer<E> implements RingBufferInterface<E> {
+    private static final int PAD = 16;
+    private static final int ENQUEUE = PAD;
+    private static final int DEQUEUE = 3 * PAD;
+
+    private final Object[] buffer;
+    private final AtomicLongArray slotSequences;
+    private final int mask;
+    private final AtomicLongArray positions;
+
+    /**
+     * @param capacity the minimum number of elements the queue can hold; it is rounded up to a
+     *                 power of two of at least 2
+     * @throws IllegalArgumentException if capacity is not positive or larger than 2^30
+     */
+    public MpmcRingBuffer(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        }
+        int size = 2;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        buffer = new Object[size];
+        slotSequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slotSequences.setPlain(i, i);
+        }
+        mask = size - 1;
+        positions = new AtomicLongArray(5 * PAD);
+    }
+
+    @Override
+    public int size() {
+        long dequeue = positions.get(DEQUEUE);
+        long enqueue = positions.get(ENQUEUE);
+        return (int) Math.max(0, Math.min(buffer.length, enqueue - dequeue));
+    }
+
+    @Override
+    public int capacity() {
+        return buffer.length;
+    }
+
+    @Override
+    public boolean offerLast(E e) {
+        if (e == null) {
+            throw new IllegalArgumentException("element is null");
+        }
+        long pos = positions.get(ENQUEUE);
+        while (true) {
+            int i = (int) pos & mask;
+            long dif = slotSequences.getAcquire(i) - pos;
+            if (dif == 0) {
+                if (positions.compareAndSet(ENQUEUE, pos, pos + 1)) {
+                    buffer[i] = e;
+                    slotSequences.setRelease(i, pos + 1);
+                    return true;
+                }
+                pos = positions.get(ENQUEUE);
+            } else if (dif < 0) {
+                // The slot still holds the element from one lap ago, so the queue is full.
+                return false;
+            } else {
+                pos = positions.get(ENQUEUE);
+            }
+        }
+    }
+
+    @Override
+    public void addLast(E e) {
+        if (!offerLast(e)) {
+            throw new IllegalStateException("queue is full");
+        }
+    }
+
+    @Override
+    public E tryPollFirst() {
+        long pos = positions.get(DEQUEUE);
+        while (true) {
+            int i = (int) pos & mask;
+            long dif = slotSequences.getAcquire(i) - (pos + 1);
+            if (dif == 0) {
+                if (positions.compareAndSet(DEQUEUE, pos, pos + 1)) {
+                    E ans = elementAt(i);
+                    buffer[i] = null;
+                    slotSequences.setRelease(i, pos + buffer.length);
+                    return ans;
+                }
+                pos = positions.get(DEQUEUE);
+            } else if (dif < 0) {
+                // The slot has not been filled for this lap yet, so the queue is empty.
+                return null;
+            } else {
+                pos = positions.get(DEQUEUE);
+            }
+        }
+    }
+
+    @Override
+    public E pollFirst() {
+        E ans = tryPollFirst();
+        if (ans == null) {
+            throw new NoSuchElementException("queue is empty");
+        }
+        return ans;
+    }
+
+    @Override
+    public E peekFirst() {
+        while (true) {
+            long pos = positions.get(DEQUEUE);
+            int i = (int) pos & mask;
+            if (slotSequences.getAcquire(i) != pos + 1) {
+                if (pos == positions.get(DEQUEUE)) {
+                    throw new NoSuchElementException("queue is empty");
+                }
+                continue;
+            }
+            E ans = elementAt(i);
+            // Only trust the element if no consumer claimed the slot while we read it.
+            if (ans != null && pos == positions.get(DEQUEUE)) {
+                return ans;
+            }
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        int n = 0;
+        while (n < maxElements) {
+            E e = tryPollFirst();
+            if (e == null) {
+                break;
+            }
+            c.add(e);
+            n++;
+        }
+        return n;
+    }
+
+    @Override
+    public int offerBatch(E[] items, int from, int to) {
+        for (int k = from; k < to; k++) {
+            if (items[k] == null) {
+                throw new IllegalArgumentException("element is null");
+            }
+        }
+        int n = 0;
+        while (from + n < to && offerLast(items[from + n])) {
+            n++;
+        }
+        return n;
+    }
+
+    // Only elements of type E are ever stored in the buffer, so the unchecked cast is safe.
+    @SuppressWarnings("unchecked")
+    private E elementAt(int i) {
+        return (E) buffer[i];
+    }
+}
@@ -0,0 +1,204 @@
+import java.util.*;
+
+/**
+ * A pairing heap implementation of {@link BinaryMinHeapInterface}. Compared to
+ * {@link BinaryMinHeap}, inserts and decreaseKey are O(1) (amortized for decreaseKey), which
+ * suits shortest-path workloads that perform many more decreaseKey calls than extractMin calls.
+ *
+ * @param <Key> the type of priorities for this heap
+ * @param <V> the type of values stored in this heap
+ */
+public class PairingHeap<Key extends Comparable<Key>, V> implements BinaryMinHeapInterface<Key, V> {
+    HashMap<V, Node<Key, V>> map;
+    Node<Key, V> root;
+    int size;
+
+    //Constructor
+    public PairingHeap() {
+        map = new HashMap<>();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsValue(V value) {
+        return map.containsKey(value);
+    }
+
+    /**
+     * Runtime: O(1)
+     */
+    @Override
+    public void add(Key key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("key is null");
+        }
+        if (containsValue(value)) {
+            throw new IllegalArgumentException("heap already contains value");
+        }
+        Node<Key, V> x = new Node<>(key, value);
+        map.put(value, x);
+        root = meld(root, x);
+        size++;
+    }
+
+    /**
+     * Cuts the subtree rooted at the value's node and melds it back with the root.
+     * <p/>
+     * Runtime: O(1) amortized
+     */
+    @Override
+    public void decreaseKey(V value, Key newKey) {
+        if (!containsValue(value)) {
+            throw new NoSuchElementException("value is not in the heap.");
+        }
+        if (newKey == null) {
+            throw new IllegalArgumentException("newKey is null");
+        }
+        Node<Key, V> x = map.get(value);
+        if (newKey.compareTo(x.key) > 0) {
+            throw new IllegalArgumentException("newKey is larger than original key.");
+        }
+        x.key = newKey;
+        if (x == root) {
+            return;
+        }
+        cut(x);
+        root = meld(root, x);
+    }
+
+    @Override
+    public V peek() {
+        if (root == null) {
+            throw new NoSuchElementException("heap is empty.");
+        }
+        return root.value;
+    }
+
+    /**
+     * Runtime: O(log n) amortized
+     */
+    @Override
+    public V extractMin() {
+        if (root == null) {
+            throw new NoSuchElementException("heap is empty.");
+        }
+        Node<Key, V> min = root;
+        map.remove(min.value);
+        root = mergePairs(min.child);
+        if (root != null) {
+            root.prev = null;
+        }
+        min.child = null;
+        size--;
+        return min.value;
+    }
+
+    @Override
+    public Set<V> values() {
+        Set<V> ans = new HashSet<>();
+        if (root == null) {
+            return ans;
+        }
+        ArrayList<Node<Key, V>> stack = new ArrayList<>();
+        stack.add(root);
+        while (!stack.isEmpty()) {
+            Node<Key, V> x = stack.remove(stack.size() - 1);
+            ans.add(x.value);
+            if (x.child != null) {
+                stack.add(x.child);
+            }
+            if (x.next != null) {
+                stack.add(x.next);
+            }
+        }
+        return ans;
+    }
+
+    // Links two trees, making the one with the larger key the leftmost child of the other.
+    private Node<Key, V> meld(Node<Key, V> a, Node<Key, V> b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (b.key.compareTo(a.key) < 0) {
+            Node<Key, V> temp = a;
+            a = b;
+            b = temp;
+        }
+        b.prev = a;
+        b.next = a.child;
+        if (a.child != null) {
+            a.child.prev = b;
+        }
+        a.child = b;
+        a.next = null;
+        a.prev = null;
+        return a;
+    }
+
+    // Detaches x (and its subtree) from its parent or left sibling.
+    private void cut(Node<Key, V> x) {
+        if (x.prev.child == x) {
+            x.prev.child = x.next;
+        } else {
+            x.prev.next = x.next;
+        }
+        if (x.next != null) {
+            x.next.prev = x.prev;
+        }
+        x.prev = null;
+        x.next = null;
+    }
+
+    // Standard two-pass pairing: meld siblings left to right in pairs, then meld the pairs right
+    // to left. Done iteratively so long sibling lists cannot overflow the stack.
+    private Node<Key, V> mergePairs(Node<Key, V> first) {
+        if (first == null) {
+            return null;
+        }
+        ArrayList<Node<Key, V>> pairs = new ArrayList<>();
+        Node<Key, V> x = first;
+        while (x != null) {
+            Node<Key, V> a = x;
+            Node<Key, V> b = a.next;
+            x = (b == null) ? null : b.next;
+            a.next = null;
+            a.prev = null;
+            if (b != null) {
+                b.next = null;
+                b.prev = null;
+            }
+            pairs.add(meld(a, b));
+        }
+        Node<Key, V> ans = pairs.get(pairs.size() - 1);
+        for (int i = pairs.size() - 2; i >= 0; i--) {
+            ans = meld(pairs.get(i), ans);
+        }
+        return ans;
+    }
+
+    // prev points at the parent for a leftmost child, and at the left sibling otherwise.
+    static class Node<A, B> {
+        A key;
+        B value;
+        Node<A, B> child;
+        Node<A, B> next;
+        Node<A, B> prev;
+
+        Node(A key, B value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+
+/**
+ * Facade for multi-threaded, level-synchronous breadth-first search of everything reachable
+ * from one vertex. Each level's frontier is cut into chunks of {@link #GRAIN} vertices that a
+ * {@link ForkJoinPool} expands in parallel. A vertex is claimed by setting its bit in an atomic
+ * bitset with a compare-and-swap, so exactly one thread records it and adds it to the next
+ * frontier. Each chunk appends the vertices it claims to its own buffer, and the buffers are
+ * concatenated into the next frontier once the level is done, so threads never contend on a
+ * shared queue.
+ * <p/>
+ * The graph must not be modified while a search runs. Which parent a vertex gets depends on
+ * the thread schedule, but it is always a vertex of the previous level.
+ */
+public final class ParallelBFS {
+    private ParallelBFS() {}
+
+    // Frontier vertices expanded by one leaf task.
+    static final int GRAIN = 1024;
+
+    /**
+     * Computes the number of edges on a shortest path from {@code src} to every vertex of an
+     * undirected graph.
+     *
+     * @param g the graph
+     * @param src the vertex from which to search
+     * @param parallelism the number of worker threads
+     * @return an array whose entry {@code v} is the distance of {@code v} from {@code src}, or -1
+     *         if {@code v} is unreachable
+     * @throws IllegalArgumentException if {@code src} is not in the graph
+     * @throws IllegalArgumentException if the specified graph is null
+     * @throws IllegalArgumentException if {@code parallelism} is not positive
+     * @implSpec This method runs in O(n + m) work.
+     */
+    public static int[] levels(Graph g, int src, int parallelism) {
+        if (g == null) {
+            throw new IllegalArgumentException("graph is null");
+        }
+        return search(g.getSize(), g::forEachNeighbor, src, parallelism, false);
+    }
+
+    /**
+     * Computes the number of edges on a shortest path from {@code src} to every vertex of a
+     * directed graph, following out-edges.
+     *
+     * @param g the graph
+     * @param src the vertex from which to search
+     * @param parallelism the number of worker threads
+     * @return an array whose entry {@code v} is the distance of {@code v} from {@code src}, or -1
+     *         if {@code v} is unreachable
+     * @throws IllegalArgumentException if {@code src} is not in the graph
+     * @throws IllegalArgumentException if the specified graph is null
+     * @throws IllegalArgumentException if {@code parallelism} is not positive
+     * @implSpec This method runs in O(n + m) work.
+     */
+    public static int[] levels(WDGraph g, int src, int parallelism) {
+        if (g == null) {
+            throw new IllegalArgumentException("graph is null");
+        }
+        return search(g.getSize(), g::forEachOutNeighbor, src, parallelism, false);
+    }
+
+    /**
+     * Computes a breadth-first search tree of an undirected graph. Following parents from any
+     * reachable vertex back to {@code src} gives a shortest path.
+     *
+     * @param g the graph
+     * @param src the root of the search
+     * @param parallelism the number of worker threads
+     * @return an array whose entry {@code v} is the parent of {@code v} in the tree, {@code src}
+     *         for {@code src} itself and -1 for unreachable vertices
+     * @throws IllegalArgumentException if {@code src} is not in the graph
+     * @throws IllegalArgumentException if the specified graph is null
+     * @throws IllegalArgumentException if {@code parallelism} is not positive
+     * @implSpec This method runs in O(n + m) work.
+     */
+    public static int[] parents(Graph g, int src, int parallelism) {
+        if (g == null) {
+            throw new IllegalArgumentException("graph is null");
+        }
+        return search(g.getSize(), g::forEachNeighbor, src, parallelism, true);
+    }
+
+    /**
+     * Computes a breadth-first search tree of a directed graph, following out-edges.
+     *
+     * @param g the graph
+     * @param src the root of the search
+     * @param parallelism the number of worker threads
+     * @return an array whose entry {@code v} is the parent of {@code v} in the tree, {@code src}
+     *         for {@code src} itself and -1 for unreachable vertices
+     * @throws IllegalArgumentException if {@code src} is not in the graph
+     * @throws IllegalArgumentException if the specified graph is null
+     * @throws IllegalArgumentException if {@code parallelism} is not positive
+     * @implSpec This method runs in O(n + m) work.
+     */
+    public static int[] parents(WDGraph g, int src, int parallelism) {
+        if (g == null) {
+            throw new IllegalArgumentException("graph is null");
+        }
+        return search(g.getSize(), g::forEachOutNeighbor, src, parallelism, true);
+    }
+
+    // Fills ans with the parent (if parents is set) or level of every reachable vertex.
+    private static int[] search(int n, BFS.Adjacency adj, int src, int parallelism,
+                                boolean parents) {
+        if (src < 0 || src >= n) {
+            throw new IllegalArgumentException("src is out of bounds");
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism is not positive");
+        }
+        int[] ans = new int[n];
+        Arrays.fill(ans, -1);
+        ans[src] = parents ? src : 0;
+        Level level = new Level(adj, ans, new AtomicLongArray((n + 63) >>> 6), parents);
+        claim(level.discovered, src);
+        level.frontier = new int[] {src};
+        level.size = 1;
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            for (int depth = 1; level.size > 0; depth++) {
+                level.depth = depth;
+                int chunks = (level.size + GRAIN - 1) / GRAIN;
+                if (level.buffers.length < chunks) {
+                    level.buffers = Arrays.copyOf(level.buffers, chunks);
+                    level.counts = new int[chunks];
+                }
+                pool.invoke(new Expand(level, 0, chunks));
+                level.merge(chunks);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return ans;
+    }
+
+    // Sets bit v and returns true if this call set it, or returns false if it was already set.
+    static boolean claim(AtomicLongArray bits, int v) {
+        int i = v >>> 6;
+        long mask = 1L << v;
+        long word = bits.get(i);
+        while ((word & mask) == 0) {
+            if (bits.compareAndSet(i, word, word | mask)) {
+                return true;
+            }
+            word = bits.get(i);
+        }
+        return false;
+    }
+
+    // The state shared by the tasks of one search. Fields other than discovered are only
+    // written between levels, or per chunk by the single task that owns the chunk; joining the
+    // tasks of a level publishes those writes to the next one.
+    private static final class Level {
+        final BFS.Adjacency adj;
+        final int[] ans;
+        final AtomicLongArray discovered;
+        final boolean parents;
+        int depth;
+        int[] frontier;
+        int size;
+        // buffers[c] holds the first counts[c] vertices claimed by chunk c in this level.
+        int[][] buffers = new int[0][];
+        int[] counts = new int[0];
+
+        Level(BFS.Adjacency adj, int[] ans, AtomicLongArray discovered, boolean parents) {
+            this.adj = adj;
+            this.ans = ans;
+            this.discovered = discovered;
+            this.parents = parents;
+        }
+
+        // Concatenates the chunk buffers into the next frontier.
+        void merge(int chunks) {
+            int total = 0;
+            for (int c = 0; c < chunks; c++) {
+                total += counts[c];
+            }
+            int[] next = total <= frontier.length ? frontier : new int[total];
+            int pos = 0;
+            for (int c = 0; c < chunks; c++) {
+                System.arraycopy(buffers[c], 0, next, pos, counts[c]);
+                pos += counts[c];
+            }
+            frontier = next;
+            size = total;
+        }
+    }
+
+    // Expands chunks lo (inclusive) to hi (exclusive) of the frontier, splitting in halves until
+    // a single chunk is left.
+    private static final class Expand extends RecursiveAction implements IntConsumer {
+        // ForkJoinTask is Serializable, but these tasks never leave the pool that runs them.
+        private static final long serialVersionUID = 1L;
+
+        private final Level level;
+        private final int lo;
+        private final int hi;
+        private int from;
+        private int[] buf;
+        private int count;
+
+        Expand(Level level, int lo, int hi) {
+            this.level = level;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Expand(level, lo, mid), new Expand(level, mid, hi));
+                return;
+            }
+            buf = level.buffers[lo];
+            if (buf == null) {
+                buf = new int[GRAIN];
+            }
+            count = 0;
+            int end = Math.min(level.size, (lo + 1) * GRAIN);
+            for (int i = lo * GRAIN; i < end; i++) {
+                from = level.frontier[i];
+                level.adj.forEachNeighbor(from, this);
+            }
+            level.buffers[lo] = buf;
+            level.counts[lo] = count;
+        }
+
+        @Override
+        public void accept(int v) {
+            if (claim(level.discovered, v)) {
+                level.ans[v] = level.parents ? from : level.depth;
+                if (count == buf.length) {
+                    buf = Arrays.copyOf(buf, 2 * buf.length);
+                }
+                buf[count++] = v;
+            }
+        }
+    }
+}
@@ -0,0 +1,284 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A directed graph split into {@link GraphShard}s by a {@link Partitioner}, with bulk
+ * synchronous BFS and single-source shortest paths that exchange frontier updates between
+ * shards through a {@link Transport}.
+ * <p/>
+ * An instance holds the shards that live in the current process; in a multi-process run every
+ * process builds a PartitionedGraph over its own shards and the same partitioner, and runs the
+ * same traversal with a transport connecting the processes. Each superstep, every local shard
+ * expands its frontier: edges to vertices it owns are relaxed directly, and edges to vertices
+ * owned by another shard become messages batched per destination shard. After the barrier,
+ * each shard applies the messages it received, and the improved vertices form its next
+ * frontier. The traversal ends when no shard has a frontier and no message is in flight.
+ */
+public class PartitionedGraph {
+    final Partitioner partitioner;
+    // shards[s] is shard s, or null if it lives in another process.
+    final GraphShard[] shards;
+
+    /**
+     * @param partitioner the partitioner used by every shard
+     * @param localShards the shards that live in this process
+     * @throws IllegalArgumentException if an argument is null, a shard uses a different
+     *                                  partitioner or a shard appears twice
+     */
+    public PartitionedGraph(Partitioner partitioner, List<GraphShard> localShards) {
+        if (partitioner == null || localShards == null) {
+            throw new IllegalArgumentException("argument is null");
+        }
+        this.partitioner = partitioner;
+        this.shards = new GraphShard[partitioner.numShards()];
+        for (GraphShard s : localShards) {
+            if (s.partitioner != partitioner) {
+                throw new IllegalArgumentException("shard uses a different partitioner");
+            }
+            if (shards[s.shard] != null) {
+                throw new IllegalArgumentException("shard " + s.shard + " appears twice");
+            }
+            shards[s.shard] = s;
+        }
+    }
+
+    /**
+     * Partitions a graph into shards that all live in this process.
+     *
+     * @param g the graph
+     * @param partitioner how to assign the vertices of {@code g} to shards
+     * @return the partitioned graph
+     * @throws IllegalArgumentException if an argument is null or the partitioner is for a
+     *                                  different number of vertices
+     * @implSpec This method runs in O(n + k m) time for k shards.
+     */
+    public static PartitionedGraph fromWDGraph(WDGraph g, Partitioner partitioner) {
+        if (g == null) {
+            throw new IllegalArgumentException("graph is null");
+        }
+        if (partitioner == null) {
+            throw new IllegalArgumentException("partitioner is null");
+        }
+        if (partitioner.numVertices() != g.getSize()) {
+            throw new IllegalArgumentException("partitioner has a different number of vertices");
+        }
+        CSRGraph csr = CSRGraph.fromWDGraph(g);
+        int[] src = new int[csr.numArcs()];
+        for (int u = 0; u < csr.getSize(); u++) {
+            Arrays.fill(src, csr.offsets[u], csr.offsets[u + 1], u);
+        }
+        List<GraphShard> shards = new ArrayList<>();
+        for (int s = 0; s < partitioner.numShards(); s++) {
+            shards.add(GraphShard.fromArcs(partitioner, s, src, csr.targets, csr.weights,
+                    csr.numArcs()));
+        }
+        return new PartitionedGraph(partitioner, shards);
+    }
+
+    /**
+     * @return the partitioner of this graph
+     */
+    public Partitioner partitioner() {
+        return partitioner;
+    }
+
+    /**
+     * Runs a breadth-first search from {@code src}; the resulting distances are hop counts.
+     * Each superstep advances the whole frontier by exactly one level.
+     *
+     * @param src the vertex from which to search
+     * @param transport the transport connecting the shards
+     * @return the distances and parents of the vertices of the local shards
+     * @throws IllegalArgumentException if {@code src} is not in the graph or transport is null
+     */
+    public Result bfs(int src, Transport transport) {
+        return traverse(src, transport, true);
+    }
+
+    /**
+     * Computes shortest paths from {@code src} by label-correcting relaxation (distributed
+     * Bellman-Ford). Edge weights must be non-negative.
+     *
+     * @param src the source vertex
+     * @param transport the transport connecting the shards
+     * @return the distances and parents of the vertices of the local shards
+     * @throws IllegalArgumentException if {@code src} is not in the graph or transport is null
+     */
+    public Result shortestPaths(int src, Transport transport) {
+        return traverse(src, transport, false);
+    }
+
+    private Result traverse(int src, Transport transport, boolean unweighted) {
+        partitioner.checkVertex(src);
+        if (transport == null) {
+            throw new IllegalArgumentException("transport is null");
+        }
+        int k = shards.length;
+        double[][] dist = new double[k][];
+        int[][] parent = new int[k][];
+        boolean[][] queued = new boolean[k][];
+        IntDeque[] frontier = new IntDeque[k];
+        for (int s = 0; s < k; s++) {
+            if (shards[s] != null) {
+                int size = shards[s].numLocalVertices();
+                dist[s] = new double[size];
+                Arrays.fill(dist[s], Double.POSITIVE_INFINITY);
+                parent[s] = new int[size];
+                Arrays.fill(parent[s], -1);
+                queued[s] = new boolean[size];
+                frontier[s] = new IntDeque();
+            }
+        }
+        int owner = partitioner.shardOf(src);
+        if (shards[owner] != null) {
+            int local = partitioner.localIndex(src);
+            dist[owner][local] = 0;
+            parent[owner][local] = src;
+            queued[owner][local] = true;
+            frontier[owner].addLast(local);
+        }
+
+        int supersteps = 0;
+        while (true) {
+            boolean active = false;
+            for (int s = 0; s < k; s++) {
+                GraphShard shard = shards[s];
+                if (shard == null) {
+                    continue;
+                }
+                MessageBatch[] out = new MessageBatch[k];
+                IntDeque next = new IntDeque();
+                while (!frontier[s].isEmpty()) {
+                    int u = frontier[s].pollFirst();
+                    queued[s][u] = false;
+                    int globalU = partitioner.globalId(s, u);
+                    for (int e = shard.offsets[u]; e < shard.offsets[u + 1]; e++) {
+                        int v = shard.targets[e];
+                        double d = dist[s][u] + (unweighted ? 1 : shard.weights[e]);
+                        int to = partitioner.shardOf(v);
+                        if (to != s) {
+                            if (out[to] == null) {
+                                out[to] = new MessageBatch(s);
+                            }
+                            out[to].add(v, d, globalU);
+                        } else {
+                            int local = partitioner.localIndex(v);
+                            if (d < dist[s][local]) {
+                                dist[s][local] = d;
+                                parent[s][local] = globalU;
+                                if (!queued[s][local]) {
+                                    queued[s][local] = true;
+                                    next.addLast(local);
+                                }
+                            }
+                        }
+                    }
+                }
+                for (int to = 0; to < k; to++) {
+                    if (out[to] != null) {
+                        transport.send(to, out[to]);
+                    }
+                }
+                frontier[s] = next;
+                active |= !next.isEmpty();
+            }
+            if (!transport.endSuperstep(active)) {
+                break;
+            }
+            supersteps++;
+            for (int s = 0; s < k; s++) {
+                if (shards[s] == null) {
+                    continue;
+                }
+                for (MessageBatch batch : transport.receive(s)) {
+                    for (int i = 0; i < batch.size; i++) {
+                        int local = partitioner.localIndex(batch.targets[i]);
+                        if (batch.values[i] < dist[s][local]) {
+                            dist[s][local] = batch.values[i];
+                            parent[s][local] = batch.sources[i];
+                            if (!queued[s][local]) {
+                                queued[s][local] = true;
+                                frontier[s].addLast(local);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return new Result(src, dist, parent, supersteps);
+    }
+
+    /**
+     * The outcome of a traversal, for the vertices of the local shards.
+     */
+    public final class Result {
+        private final int src;
+        private final double[][] dist;
+        private final int[][] parent;
+        private final int supersteps;
+
+        private Result(int src, double[][] dist, int[][] parent, int supersteps) {
+            this.src = src;
+            this.dist = dist;
+            this.parent = parent;
+            this.supersteps = supersteps;
+        }
+
+        /**
+         * @return the number of supersteps (barriers) the traversal took
+         */
+        public int supersteps() {
+            return supersteps;
+        }
+
+        /**
+         * @param v a vertex of a local shard
+         * @return the distance from the source to {@code v}, or positive infinity if {@code v}
+         *         is unreachable
+         * @throws IllegalArgumentException if {@code v} does not exist or is not local
+         */
+        public double distance(int v) {
+            int s = localShard(v);
+            return dist[s][partitioner.localIndex(v)];
+        }
+
+        /**
+         * Follows parent pointers back from {@code v} to the source.
+         *
+         * @param v a vertex of a local shard
+         * @return the vertices on a shortest path from the source to {@code v}, or an empty
+         *         list if {@code v} is unreachable
+         * @throws IllegalArgumentException if {@code v} does not exist or is not local
+         * @throws IllegalStateException if the path passes through a shard that is not local
+         */
+        public List<Integer> pathTo(int v) {
+            List<Integer> ans = new ArrayList<>();
+            int s = localShard(v);
+            if (parent[s][partitioner.localIndex(v)] == -1) {
+                return ans;
+            }
+            int x = v;
+            while (x != src) {
+                ans.add(x);
+                s = partitioner.shardOf(x);
+                if (shards[s] == null) {
+                    throw new IllegalStateException("path passes through a remote shard");
+                }
+                x = parent[s][partitioner.localIndex(x)];
+            }
+            ans.add(src);
+            Collections.reverse(ans);
+            return ans;
+        }
+
+        private int localShard(int v) {
+            int s = partitioner.shardOf(v);
+            if (shards[s] == null) {
+                throw new IllegalArgumentException("vertex " + v + " is not in a local shard.");
+            }
+            return s;
+        }
+    }
+}
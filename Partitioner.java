@@ -0,0 +1,151 @@
+/**
+ * Assigns every vertex of a graph with {@code n} vertices to one of {@code k} shards, and
+ * numbers the vertices of each shard densely from 0 so a shard can keep its per-vertex data in
+ * plain arrays. Every process in a partitioned computation must use the same partitioner.
+ *
+ * @see PartitionedGraph
+ */
+public abstract class Partitioner {
+    final int numVert;
+    final int numShards;
+
+    Partitioner(int numVert, int numShards) {
+        if (numVert < 0) {
+            throw new IllegalArgumentException("n is negative");
+        }
+        if (numShards <= 0) {
+            throw new IllegalArgumentException("number of shards is not positive");
+        }
+        this.numVert = numVert;
+        this.numShards = numShards;
+    }
+
+    /**
+     * Hash partitioning with {@code v mod k} as the hash. Consecutive ids land on different
+     * shards, which balances graphs whose dense regions have nearby ids, and a vertex's shard and
+     * local index are computed without any lookup table.
+     *
+     * @param n the number of vertices
+     * @param k the number of shards
+     * @return the partitioner
+     * @throws IllegalArgumentException if {@code n} is negative or {@code k} is not positive
+     */
+    public static Partitioner hash(int n, int k) {
+        return new Partitioner(n, k) {
+            @Override
+            public int shardOf(int v) {
+                checkVertex(v);
+                return v % numShards;
+            }
+
+            @Override
+            public int localIndex(int v) {
+                checkVertex(v);
+                return v / numShards;
+            }
+
+            @Override
+            public int globalId(int shard, int local) {
+                return local * numShards + shard;
+            }
+
+            @Override
+            public int shardSize(int shard) {
+                checkShard(shard);
+                return (numVert - shard + numShards - 1) / numShards;
+            }
+        };
+    }
+
+    /**
+     * Range partitioning into blocks of {@code ceil(n / k)} consecutive ids. This keeps edges
+     * between nearby ids (for example after a {@link VertexOrdering}) inside one shard, so
+     * fewer messages cross shards.
+     *
+     * @param n the number of vertices
+     * @param k the number of shards
+     * @return the partitioner
+     * @throws IllegalArgumentException if {@code n} is negative or {@code k} is not positive
+     */
+    public static Partitioner range(int n, int k) {
+        int block = Math.max(1, (int) (((long) n + k - 1) / Math.max(1, k)));
+        return new Partitioner(n, k) {
+            @Override
+            public int shardOf(int v) {
+                checkVertex(v);
+                return v / block;
+            }
+
+            @Override
+            public int localIndex(int v) {
+                checkVertex(v);
+                return v % block;
+            }
+
+            @Override
+            public int globalId(int shard, int local) {
+                return shard * block + local;
+            }
+
+            @Override
+            public int shardSize(int shard) {
+                checkShard(shard);
+                return Math.max(0, Math.min(block, numVert - shard * block));
+            }
+        };
+    }
+
+    /**
+     * @return the number of vertices being partitioned
+     */
+    public int numVertices() {
+        return numVert;
+    }
+
+    /**
+     * @return the number of shards
+     */
+    public int numShards() {
+        return numShards;
+    }
+
+    /**
+     * @param v a vertex
+     * @return the shard that owns {@code v}
+     * @throws IllegalArgumentException if the specified vertex does not exist
+     */
+    public abstract int shardOf(int v);
+
+    /**
+     * @param v a vertex
+     * @return the index of {@code v} among the vertices of its shard
+     * @throws IllegalArgumentException if the specified vertex does not exist
+     */
+    public abstract int localIndex(int v);
+
+    /**
+     * @param shard a shard
+     * @param local the index of a vertex within the shard
+     * @return the vertex
+     */
+    public abstract int globalId(int shard, int local);
+
+    /**
+     * @param shard a shard
+     * @return the number of vertices the shard owns
+     * @throws IllegalArgumentException if the specified shard does not exist
+     */
+    public abstract int shardSize(int shard);
+
+    void checkVertex(int v) {
+        if (v < 0 || v >= numVert) {
+            throw new IllegalArgumentException("vertex " + v + " does not exist.");
+        }
+    }
+
+    void checkShard(int shard) {
+        if (shard < 0 || shard >= numShards) {
+            throw new IllegalArgumentException("shard " + shard + " does not exist.");
+        }
+    }
+}
@@ -0,0 +1,208 @@
+import java.util.*;
+
+/**
+ * A monotone radix heap implementation of {@link BinaryMinHeapInterface}. A radix heap only
+ * works when keys are never smaller than the most recently extracted (or peeked) key, which is the
+ * access pattern of Dijkstra's algorithm on non-negative edge weights. In exchange, every
+ * operation is O(1) amortized apart from extractMin and peek, which cost O(B) amortized for the
+ * B = 65 buckets a key can pass through. peek costs the same as extractMin because it also has
+ * to move the smallest key into the lowest bucket. A full shortest-path run is therefore close
+ * to linear for integer weights.
+ * <p/>
+ * Keys are non-negative doubles. The bit pattern of a non-negative double orders the same way as
+ * the double itself, so the buckets are chosen from the highest bit in which a key differs from
+ * the last extracted key.
+ *
+ * @param <V> the type of values stored in this heap
+ */
+public class RadixHeap<V> implements BinaryMinHeapInterface<Double, V> {
+    private static final int NUM_BUCKETS = 65;
+
+    HashMap<V, Node<V>> map;
+    Node<V>[] buckets;
+    long last;
+    int size;
+
+    //Constructor
+    @SuppressWarnings("unchecked")
+    public RadixHeap() {
+        map = new HashMap<>();
+        // Generic arrays cannot be created directly; every slot only ever holds a Node<V>.
+        buckets = (Node<V>[]) new Node<?>[NUM_BUCKETS];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsValue(V value) {
+        return map.containsKey(value);
+    }
+
+    /**
+     * @throws IllegalArgumentException  if key is negative, NaN, or smaller than the last
+     *                                   extracted or peeked key
+     *
+     * Runtime: O(1)
+     */
+    @Override
+    public void add(Double key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("key is null");
+        }
+        if (containsValue(value)) {
+            throw new IllegalArgumentException("heap already contains value");
+        }
+        Node<V> x = new Node<>(toBits(key), value);
+        map.put(value, x);
+        insert(x);
+        size++;
+    }
+
+    /**
+     * @throws IllegalArgumentException  if newKey is smaller than the last extracted or peeked key
+     *
+     * Runtime: O(1)
+     */
+    @Override
+    public void decreaseKey(V value, Double newKey) {
+        if (!containsValue(value)) {
+            throw new NoSuchElementException("value is not in the heap.");
+        }
+        if (newKey == null) {
+            throw new IllegalArgumentException("newKey is null");
+        }
+        Node<V> x = map.get(value);
+        long bits = toBits(newKey);
+        if (bits > x.bits) {
+            throw new IllegalArgumentException("newKey is larger than original key.");
+        }
+        unlink(x);
+        x.bits = bits;
+        insert(x);
+    }
+
+    /**
+     * Runtime: O(B) amortized, with B = 65 buckets; redistributing a bucket may scan all of them
+     */
+    @Override
+    public V peek() {
+        if (size == 0) {
+            throw new NoSuchElementException("heap is empty.");
+        }
+        redistribute();
+        return buckets[0].value;
+    }
+
+    /**
+     * Runtime: O(B) amortized, with B = 65 buckets; redistributing a bucket may scan all of them
+     */
+    @Override
+    public V extractMin() {
+        if (size == 0) {
+            throw new NoSuchElementException("heap is empty.");
+        }
+        redistribute();
+        Node<V> x = buckets[0];
+        unlink(x);
+        map.remove(x.value);
+        size--;
+        return x.value;
+    }
+
+    @Override
+    public Set<V> values() {
+        Set<V> ans = new HashSet<>();
+        for (Node<V> head : buckets) {
+            for (Node<V> x = head; x != null; x = x.next) {
+                ans.add(x.value);
+            }
+        }
+        return ans;
+    }
+
+    private long toBits(Double key) {
+        double k = key;
+        if (!(k >= 0)) {
+            throw new IllegalArgumentException("key is negative or NaN");
+        }
+        // + 0.0 folds -0.0 into 0.0, whose bit pattern is all zeros.
+        long bits = Double.doubleToLongBits(k + 0.0);
+        if (bits < last) {
+            throw new IllegalArgumentException("key is smaller than the last extracted key.");
+        }
+        return bits;
+    }
+
+    private int bucketOf(long bits) {
+        return bits == last ? 0 : 64 - Long.numberOfLeadingZeros(bits ^ last);
+    }
+
+    private void insert(Node<V> x) {
+        int b = bucketOf(x.bits);
+        x.bucket = b;
+        x.prev = null;
+        x.next = buckets[b];
+        if (buckets[b] != null) {
+            buckets[b].prev = x;
+        }
+        buckets[b] = x;
+    }
+
+    private void unlink(Node<V> x) {
+        if (x.prev == null) {
+            buckets[x.bucket] = x.next;
+        } else {
+            x.prev.next = x.next;
+        }
+        if (x.next != null) {
+            x.next.prev = x.prev;
+        }
+        x.prev = null;
+        x.next = null;
+    }
+
+    // Makes bucket 0 non-empty by advancing last to the smallest key in the first non-empty
+    // bucket and spreading that bucket's nodes over the lower buckets.
+    private void redistribute() {
+        if (buckets[0] != null) {
+            return;
+        }
+        int i = 1;
+        while (buckets[i] == null) {
+            i++;
+        }
+        long min = Long.MAX_VALUE;
+        for (Node<V> x = buckets[i]; x != null; x = x.next) {
+            min = Math.min(min, x.bits);
+        }
+        last = min;
+        Node<V> x = buckets[i];
+        buckets[i] = null;
+        while (x != null) {
+            Node<V> next = x.next;
+            insert(x);
+            x = next;
+        }
+    }
+
+    static class Node<B> {
+        long bits;
+        B value;
+        int bucket;
+        Node<B> next;
+        Node<B> prev;
+
+        Node(long bits, B value) {
+            this.bits = bits;
+            this.value = value;
+        }
+    }
+}
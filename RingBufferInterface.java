@@ -0,0 +1,88 @@
+import java.util.Collection;
+import java.util.NoSuchElementException;
+
+/**
+ * A bounded, lock-free FIFO queue for handing work items between threads. It exposes the
+ * producer and consumer halves of {@link ResizingDequeInterface} (elements go in at the end and
+ * come out at the front) plus batch operations. Implementations never resize, so a full queue
+ * rejects new elements instead of growing. Null elements are not allowed.
+ *
+ * @param <E> the type of the elements in the queue
+ */
+public interface RingBufferInterface<E> {
+
+    /**
+     * Returns the number of elements in the queue. If other threads are using the queue, this is
+     * only a snapshot.
+     *
+     * @return the number of elements in the queue
+     */
+    public int size();
+
+    /**
+     * @return the maximum number of elements the queue can hold
+     */
+    public int capacity();
+
+    /**
+     * Inserts the specified element at the end of the queue if there is room.
+     *
+     * @param e the element to add
+     * @return true if the element was added, false if the queue is full
+     * @throws IllegalArgumentException if e is null
+     */
+    public boolean offerLast(E e);
+
+    /**
+     * Inserts the specified element at the end of the queue.
+     *
+     * @param e the element to add
+     * @throws IllegalArgumentException if e is null
+     * @throws IllegalStateException if the queue is full
+     */
+    public void addLast(E e);
+
+    /**
+     * Retrieves and removes the first element of the queue.
+     *
+     * @return the first element, or null if the queue is empty
+     */
+    public E tryPollFirst();
+
+    /**
+     * Retrieves and removes the first element of the queue.
+     *
+     * @throws NoSuchElementException if the queue is empty.
+     */
+    public E pollFirst();
+
+    /**
+     * Retrieves, but does not remove, the first element of the queue. If other consumers are
+     * using the queue, the element may already have been removed when this method returns.
+     *
+     * @throws NoSuchElementException if the queue is empty.
+     */
+    public E peekFirst();
+
+    /**
+     * Removes up to {@code maxElements} elements from the front of the queue and adds them, in
+     * order, to the specified collection.
+     *
+     * @param c the collection to add the elements to
+     * @param maxElements the maximum number of elements to remove
+     * @return the number of elements removed
+     */
+    public int drainTo(Collection<? super E> c, int maxElements);
+
+    /**
+     * Inserts {@code items[from]} through {@code items[to - 1]} at the end of the queue, in order,
+     * stopping at the first element that does not fit.
+     *
+     * @param items the elements to add
+     * @param from the index of the first element to add, inclusive
+     * @param to the index of the last element to add, exclusive
+     * @return the number of elements added
+     * @throws IllegalArgumentException if one of the elements is null
+     */
+    public int offerBatch(E[] items, int from, int to);
+}
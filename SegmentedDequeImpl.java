@@ -0,0 +1,224 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A {@link ResizingDequeInterface} made of a doubly linked list of fixed-size blocks. Growing
+ * links in a new block and shrinking unlinks an empty one, so no operation ever copies the
+ * elements and every add and poll is O(1) in the worst case, not just amortized. Emptied blocks
+ * are kept in a small pool and reused, so a deque whose size oscillates around a block boundary
+ * does not allocate on every crossing.
+ *
+ * @param <E> the type of the elements in the deque
+ */
+public class SegmentedDequeImpl<E> implements ResizingDequeInterface<E> {
+    private static final int DEFAULT_BLOCK_SIZE = 256;
+    private static final int MAX_POOLED_BLOCKS = 16;
+
+    static final class Block {
+        final Object[] items;
+        Block prev;
+        Block next;
+
+        Block(int blockSize) {
+            items = new Object[blockSize];
+        }
+    }
+
+    private final int blockSize;
+    // Elements live in head.items[headIndex..] through tail.items[..tailIndex - 1].
+    Block head;
+    Block tail;
+    int headIndex;
+    int tailIndex;
+    int size;
+    // Spare blocks, singly linked through next.
+    private Block pool;
+    private int pooled;
+
+    public SegmentedDequeImpl() {
+        this(DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * @param blockSize the number of elements per block
+     * @throws IllegalArgumentException if {@code blockSize} is less than 2
+     */
+    public SegmentedDequeImpl(int blockSize) {
+        if (blockSize < 2) {
+            throw new IllegalArgumentException("blockSize is less than 2");
+        }
+        this.blockSize = blockSize;
+        head = new Block(blockSize);
+        tail = head;
+        headIndex = blockSize / 2;
+        tailIndex = headIndex;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Blocks are not contiguous, so this returns a new array holding the elements in order from
+     * first to last.
+     *
+     * @return the elements of the deque, first to last
+     */
+    @Override
+    public E[] getArray() {
+        // As in ResizingDequeImpl, the E[] is an Object[] at runtime; callers only read it.
+        @SuppressWarnings("unchecked")
+        E[] ans = (E[]) new Object[size];
+        int i = 0;
+        for (E e : this) {
+            ans[i++] = e;
+        }
+        return ans;
+    }
+
+    @Override
+    public void addFirst(E e) {
+        if (headIndex == 0) {
+            Block b = allocate();
+            b.next = head;
+            head.prev = b;
+            head = b;
+            headIndex = blockSize;
+        }
+        head.items[--headIndex] = e;
+        size++;
+    }
+
+    @Override
+    public void addLast(E e) {
+        if (tailIndex == blockSize) {
+            Block b = allocate();
+            b.prev = tail;
+            tail.next = b;
+            tail = b;
+            tailIndex = 0;
+        }
+        tail.items[tailIndex++] = e;
+        size++;
+    }
+
+    @Override
+    public E pollFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException("deque is empty");
+        }
+        E ans = itemAt(head, headIndex);
+        head.items[headIndex++] = null;
+        size--;
+        if (size == 0) {
+            recenter();
+        } else if (headIndex == blockSize) {
+            Block b = head;
+            head = head.next;
+            head.prev = null;
+            headIndex = 0;
+            release(b);
+        }
+        return ans;
+    }
+
+    @Override
+    public E pollLast() {
+        if (size == 0) {
+            throw new NoSuchElementException("deque is empty");
+        }
+        E ans = itemAt(tail, --tailIndex);
+        tail.items[tailIndex] = null;
+        size--;
+        if (size == 0) {
+            recenter();
+        } else if (tailIndex == 0) {
+            Block b = tail;
+            tail = tail.prev;
+            tail.next = null;
+            tailIndex = blockSize;
+            release(b);
+        }
+        return ans;
+    }
+
+    @Override
+    public E peekFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException("deque is empty");
+        }
+        return itemAt(head, headIndex);
+    }
+
+    @Override
+    public E peekLast() {
+        if (size == 0) {
+            throw new NoSuchElementException("deque is empty");
+        }
+        return itemAt(tail, tailIndex - 1);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            Block b = head;
+            int i = headIndex;
+            int remaining = size;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public E next() {
+                if (remaining == 0) {
+                    throw new NoSuchElementException("no more elements");
+                }
+                if (i == blockSize) {
+                    b = b.next;
+                    i = 0;
+                }
+                remaining--;
+                return itemAt(b, i++);
+            }
+        };
+    }
+
+    // Blocks only ever hold elements of type E, so the unchecked cast is safe.
+    @SuppressWarnings("unchecked")
+    private E itemAt(Block b, int i) {
+        return (E) b.items[i];
+    }
+
+    // When the deque empties, head == tail; starting again from the middle of that block lets
+    // both ends grow before a new block is needed.
+    private void recenter() {
+        headIndex = blockSize / 2;
+        tailIndex = headIndex;
+    }
+
+    private Block allocate() {
+        if (pool == null) {
+            return new Block(blockSize);
+        }
+        Block b = pool;
+        pool = b.next;
+        b.next = null;
+        pooled--;
+        return b;
+    }
+
+    // Blocks are only released once all their slots have been nulled out.
+    private void release(Block b) {
+        b.prev = null;
+        if (pooled < MAX_POOLED_BLOCKS) {
+            b.next = pool;
+            pool = b;
+            pooled++;
+        } else {
+            b.next = null;
+        }
+    }
+}
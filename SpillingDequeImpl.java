@@ -0,0 +1,380 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A {@link ResizingDequeInterface} for frontiers larger than the heap. Only the ends of the
+ * deque are kept in memory, each in a {@link SegmentedDequeImpl}; when an end grows past two
+ * segments' worth of elements, the segment closest to the middle is written to its own
+ * memory-mapped file. A spilled segment is read back in one sequential pass when the end next to
+ * it runs dry. Elements are therefore written and read once per spill, always sequentially, and
+ * memory use stays bounded by about four segments no matter how large the deque gets.
+ * <p/>
+ * Elements are converted to and from fixed-size records by a {@link Codec}. Null elements are
+ * not allowed. Call {@link #close()} to delete the spill files.
+ *
+ * @param <E> the type of the elements in the deque
+ */
+public class SpillingDequeImpl<E> implements ResizingDequeInterface<E>, Closeable {
+    private static final int DEFAULT_SEGMENT_SIZE = 1 << 16;
+
+    /**
+     * Converts elements to and from fixed-size binary records.
+     *
+     * @param <E> the type of the elements
+     */
+    public interface Codec<E> {
+        /**
+         * @return the number of bytes every record takes
+         */
+        int recordSize();
+
+        /**
+         * Writes one record at the buffer's position and advances it by {@link #recordSize()}.
+         */
+        void write(ByteBuffer buf, E e);
+
+        /**
+         * Reads one record at the buffer's position and advances it by {@link #recordSize()}.
+         */
+        E read(ByteBuffer buf);
+    }
+
+    /** Stores each {@code Integer} in 4 bytes. */
+    public static final Codec<Integer> INTEGERS = new Codec<Integer>() {
+        @Override
+        public int recordSize() {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buf, Integer e) {
+            buf.putInt(e);
+        }
+
+        @Override
+        public Integer read(ByteBuffer buf) {
+            return buf.getInt();
+        }
+    };
+
+    /** Stores each {@code Long} in 8 bytes. */
+    public static final Codec<Long> LONGS = new Codec<Long>() {
+        @Override
+        public int recordSize() {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buf, Long e) {
+            buf.putLong(e);
+        }
+
+        @Override
+        public Long read(ByteBuffer buf) {
+            return buf.getLong();
+        }
+    };
+
+    // A spilled run of elements, stored first to last.
+    private static final class Segment {
+        final Path file;
+        final int count;
+
+        Segment(Path file, int count) {
+            this.file = file;
+            this.count = count;
+        }
+    }
+
+    private final Codec<E> codec;
+    private final Path directory;
+    private final boolean ownsDirectory;
+    private final int segmentSize;
+    // Logical order is head, then spilled (front to back), then tail.
+    private SegmentedDequeImpl<E> head;
+    private SegmentedDequeImpl<E> tail;
+    private final ArrayDeque<Segment> spilled;
+    private long spilledCount;
+    private long nextFileId;
+
+    /**
+     * Creates a deque that spills into a new temporary directory.
+     *
+     * @param codec converts elements to records
+     * @throws IllegalArgumentException if codec is null
+     * @throws UncheckedIOException if the directory cannot be created
+     */
+    public SpillingDequeImpl(Codec<E> codec) {
+        this(codec, null, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * @param codec converts elements to records
+     * @param directory the directory to spill into, or null for a new temporary directory
+     * @param segmentSize the number of elements per spill file
+     * @throws IllegalArgumentException if codec is null or segmentSize is not positive or too
+     *         large to map
+     * @throws UncheckedIOException if the directory cannot be created
+     */
+    public SpillingDequeImpl(Codec<E> codec, Path directory, int segmentSize) {
+        if (codec == null) {
+            throw new IllegalArgumentException("codec is null");
+        }
+        if (segmentSize <= 0 || (long) segmentSize * codec.recordSize() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Illegal segment size: " + segmentSize);
+        }
+        this.codec = codec;
+        this.segmentSize = segmentSize;
+        try {
+            this.ownsDirectory = directory == null;
+            this.directory = directory == null
+                    ? Files.createTempDirectory("spilling-deque") : Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        head = new SegmentedDequeImpl<>();
+        tail = new SegmentedDequeImpl<>();
+        spilled = new ArrayDeque<>();
+    }
+
+    /**
+     * @return the number of elements in this deque, saturated at {@code Integer.MAX_VALUE}
+     */
+    @Override
+    public int size() {
+        return (int) Math.min(Integer.MAX_VALUE, longSize());
+    }
+
+    /**
+     * @return the number of elements in this deque
+     */
+    public long longSize() {
+        return head.size() + spilledCount + tail.size();
+    }
+
+    /**
+     * @return the number of elements currently on disk
+     */
+    public long spilledSize() {
+        return spilledCount;
+    }
+
+    /**
+     * Reads every spilled segment back, so this needs memory for the whole deque.
+     *
+     * @return a new array holding the elements in order from first to last
+     * @throws IllegalStateException if the deque holds more than {@code Integer.MAX_VALUE}
+     *         elements
+     */
+    @Override
+    public E[] getArray() {
+        if (longSize() > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("deque is too large for an array");
+        }
+        // As in ResizingDequeImpl, the E[] is an Object[] at runtime; callers only read it.
+        @SuppressWarnings("unchecked")
+        E[] ans = (E[]) new Object[size()];
+        int i = 0;
+        for (E e : this) {
+            ans[i++] = e;
+        }
+        return ans;
+    }
+
+    @Override
+    public void addFirst(E e) {
+        if (e == null) {
+            throw new IllegalArgumentException("element is null");
+        }
+        head.addFirst(e);
+        if (head.size() > 2 * segmentSize) {
+            // Spill the inner end of head; it sits right before the first spilled segment.
+            List<E> run = new ArrayList<>(segmentSize);
+            for (int i = 0; i < segmentSize; i++) {
+                run.add(head.pollLast());
+            }
+            Collections.reverse(run);
+            spilled.addFirst(write(run));
+            spilledCount += segmentSize;
+        }
+    }
+
+    @Override
+    public void addLast(E e) {
+        if (e == null) {
+            throw new IllegalArgumentException("element is null");
+        }
+        tail.addLast(e);
+        if (tail.size() > 2 * segmentSize) {
+            List<E> run = new ArrayList<>(segmentSize);
+            for (int i = 0; i < segmentSize; i++) {
+                run.add(tail.pollFirst());
+            }
+            spilled.addLast(write(run));
+            spilledCount += segmentSize;
+        }
+    }
+
+    @Override
+    public E pollFirst() {
+        return firstEnd().pollFirst();
+    }
+
+    @Override
+    public E pollLast() {
+        return lastEnd().pollLast();
+    }
+
+    @Override
+    public E peekFirst() {
+        return firstEnd().peekFirst();
+    }
+
+    @Override
+    public E peekLast() {
+        return lastEnd().peekLast();
+    }
+
+    /**
+     * Returns an iterator over the elements in this deque, ordered from first to last. Spilled
+     * segments are read from disk one at a time as the iterator reaches them. The deque must
+     * not be modified while the iterator is in use.
+     *
+     * @return an iterator over the elements in this deque
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            Iterator<E> current = head.iterator();
+            final Iterator<Segment> segments = spilled.iterator();
+            boolean tailStarted = false;
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext()) {
+                    if (segments.hasNext()) {
+                        current = read(segments.next(), false).iterator();
+                    } else if (!tailStarted) {
+                        tailStarted = true;
+                        current = tail.iterator();
+                    } else {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("no more elements");
+                }
+                return current.next();
+            }
+        };
+    }
+
+    /**
+     * Deletes every spill file, and the spill directory if this deque created it. The deque is
+     * empty afterwards.
+     *
+     * @throws UncheckedIOException if a file cannot be deleted
+     */
+    @Override
+    public void close() {
+        try {
+            for (Segment s : spilled) {
+                Files.deleteIfExists(s.file);
+            }
+            spilled.clear();
+            spilledCount = 0;
+            head = new SegmentedDequeImpl<>();
+            tail = new SegmentedDequeImpl<>();
+            if (ownsDirectory) {
+                Files.deleteIfExists(directory);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Returns the in-memory deque holding the first element, reloading a segment if needed.
+    private SegmentedDequeImpl<E> firstEnd() {
+        if (head.size() == 0 && !spilled.isEmpty()) {
+            Segment s = spilled.pollFirst();
+            spilledCount -= s.count;
+            head = read(s, true);
+        }
+        if (head.size() == 0) {
+            if (tail.size() == 0) {
+                throw new NoSuchElementException("deque is empty");
+            }
+            return tail;
+        }
+        return head;
+    }
+
+    private SegmentedDequeImpl<E> lastEnd() {
+        if (tail.size() == 0 && !spilled.isEmpty()) {
+            Segment s = spilled.pollLast();
+            spilledCount -= s.count;
+            tail = read(s, true);
+        }
+        if (tail.size() == 0) {
+            if (head.size() == 0) {
+                throw new NoSuchElementException("deque is empty");
+            }
+            return head;
+        }
+        return tail;
+    }
+
+    private Segment write(List<E> run) {
+        Path file = directory.resolve("segment-" + (nextFileId++) + ".bin");
+        long bytes = (long) run.size() * codec.recordSize();
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            for (E e : run) {
+                codec.write(buf, e);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Segment(file, run.size());
+    }
+
+    private SegmentedDequeImpl<E> read(Segment s, boolean delete) {
+        SegmentedDequeImpl<E> ans = new SegmentedDequeImpl<>();
+        try (FileChannel ch = FileChannel.open(s.file, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0,
+                    (long) s.count * codec.recordSize());
+            for (int i = 0; i < s.count; i++) {
+                ans.addLast(codec.read(buf));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (delete) {
+            try {
+                Files.deleteIfExists(s.file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return ans;
+    }
+}
@@ -0,0 +1,170 @@
+import java.util.Collection;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded lock-free queue for exactly one producer thread and one consumer thread. The
+ * producer only writes the tail sequence and the consumer only writes the head sequence, so
+ * neither side ever needs a compare-and-swap; a release store publishes each hand-off.
+ * <p/>
+ * The two sequences live in separate cache lines of a padded array so the threads do not
+ * invalidate each other's line on every operation. Each side also caches the last value it read
+ * of the other side's sequence and only re-reads it when the cached value says the queue is full
+ * (producer) or empty (consumer).
+ * <p/>
+ * Only the producer may call {@code offerLast}, {@code addLast} and {@code offerBatch}; only the
+ * consumer may call {@code tryPollFirst}, {@code pollFirst}, {@code peekFirst} and
+ * {@code drainTo}.
+ *
+ * @param <E> the type of the elements in the queue
+ */
+public class SpscRingBuffer<E> implements RingBufferInterface<E> {
+    // 16 longs is 128 bytes, which also keeps adjacent-line prefetching from pairing the lines.
+    private static final int PAD = 16;
+    private static final int HEAD = PAD;
+    private static final int CACHED_TAIL = PAD + 1;
+    private static final int TAIL = 3 * PAD;
+    private static final int CACHED_HEAD = 3 * PAD + 1;
+
+    private final Object[] buffer;
+    private final int mask;
+    // HEAD and CACHED_TAIL belong to the consumer, TAIL and CACHED_HEAD to the producer.
+    private final AtomicLongArray sequences;
+
+    /**
+     * @param capacity the minimum number of elements the queue can hold; it is rounded up to a
+     *                 power of two
+     * @throws IllegalArgumentException if capacity is not positive or larger than 2^30
+     */
+    public SpscRingBuffer(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        }
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        buffer = new Object[size];
+        mask = size - 1;
+        sequences = new AtomicLongArray(5 * PAD);
+    }
+
+    @Override
+    public int size() {
+        long head = sequences.getAcquire(HEAD);
+        long tail = sequences.getAcquire(TAIL);
+        return (int) Math.max(0, Math.min(buffer.length, tail - head));
+    }
+
+    @Override
+    public int capacity() {
+        return buffer.length;
+    }
+
+    @Override
+    public boolean offerLast(E e) {
+        if (e == null) {
+            throw new IllegalArgumentException("element is null");
+        }
+        long tail = sequences.getPlain(TAIL);
+        if (tail - sequences.getPlain(CACHED_HEAD) >= buffer.length) {
+            sequences.setPlain(CACHED_HEAD, sequences.getAcquire(HEAD));
+            if (tail - sequences.getPlain(CACHED_HEAD) >= buffer.length) {
+                return false;
+            }
+        }
+        buffer[(int) tail & mask] = e;
+        sequences.setRelease(TAIL, tail + 1);
+        return true;
+    }
+
+    @Override
+    public void addLast(E e) {
+        if (!offerLast(e)) {
+            throw new IllegalStateException("queue is full");
+        }
+    }
+
+    @Override
+    public E tryPollFirst() {
+        long head = sequences.getPlain(HEAD);
+        if (head >= sequences.getPlain(CACHED_TAIL)) {
+            sequences.setPlain(CACHED_TAIL, sequences.getAcquire(TAIL));
+            if (head >= sequences.getPlain(CACHED_TAIL)) {
+                return null;
+            }
+        }
+        int i = (int) head & mask;
+        E ans = elementAt(i);
+        buffer[i] = null;
+        sequences.setRelease(HEAD, head + 1);
+        return ans;
+    }
+
+    @Override
+    public E pollFirst() {
+        E ans = tryPollFirst();
+        if (ans == null) {
+            throw new NoSuchElementException("queue is empty");
+        }
+        return ans;
+    }
+
+    @Override
+    public E peekFirst() {
+        long head = sequences.getPlain(HEAD);
+        if (head >= sequences.getAcquire(TAIL)) {
+            throw new NoSuchElementException("queue is empty");
+        }
+        return elementAt((int) head & mask);
+    }
+
+    /**
+     * Reads the tail once and publishes the new head once for the whole batch.
+     */
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        long head = sequences.getPlain(HEAD);
+        long tail = sequences.getAcquire(TAIL);
+        sequences.setPlain(CACHED_TAIL, tail);
+        int n = (int) Math.min(tail - head, Math.max(0, maxElements));
+        for (int k = 0; k < n; k++) {
+            int i = (int) (head + k) & mask;
+            c.add(elementAt(i));
+            buffer[i] = null;
+        }
+        if (n > 0) {
+            sequences.setRelease(HEAD, head + n);
+        }
+        return n;
+    }
+
+    /**
+     * Reads the head once and publishes the new tail once for the whole batch.
+     */
+    @Override
+    public int offerBatch(E[] items, int from, int to) {
+        for (int k = from; k < to; k++) {
+            if (items[k] == null) {
+                throw new IllegalArgumentException("element is null");
+            }
+        }
+        long tail = sequences.getPlain(TAIL);
+        long head = sequences.getAcquire(HEAD);
+        sequences.setPlain(CACHED_HEAD, head);
+        int n = (int) Math.min(to - from, buffer.length - (tail - head));
+        for (int k = 0; k < n; k++) {
+            buffer[(int) (tail + k) & mask] = items[from + k];
+        }
+        if (n > 0) {
+            sequences.setRelease(TAIL, tail + n);
+        }
+        return Math.max(0, n);
+    }
+
+    // Only elements of type E are ever stored in the buffer, so the unchecked cast is safe.
+    @SuppressWarnings("unchecked")
+    private E elementAt(int i) {
+        return (E) buffer[i];
+    }
+}
@@ -0,0 +1,219 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A fixed-capacity heap that keeps the best {@code k} (key, value) pairs seen in a stream, where
+ * "best" means the largest keys for {@link #largest(int)} and the smallest keys for
+ * {@link #smallest(int)}. The pairs are kept in a binary heap ordered so that its root is the
+ * worst pair retained: a min-heap for the largest keys and a max-heap for the smallest. Once the
+ * heap is full, a pair that does not make the cut is rejected with a single key comparison,
+ * before its value is hashed, and one that does replaces the root in O(log k). Storage is
+ * allocated once and never grows.
+ * <p/>
+ * Values are distinct, as in {@link BinaryMinHeap}. Offering a value that is already retained
+ * keeps whichever of its two keys is better.
+ *
+ * @param <Key> the type of the ranking keys
+ * @param <V> the type of the values being ranked
+ */
+public class TopKHeap<Key extends Comparable<Key>, V> {
+    private final int k;
+    private final boolean largest;
+    // The heap arrays, with the worst retained pair at index 0; keys[i] is the key of vals[i].
+    private final Object[] keys;
+    private final Object[] vals;
+    // The index of every retained value in the arrays.
+    private final HashMap<V, Integer> map;
+    private int size;
+
+    private TopKHeap(int k, boolean largest) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k is not positive");
+        }
+        this.k = k;
+        this.largest = largest;
+        this.keys = new Object[k];
+        this.vals = new Object[k];
+        this.map = new HashMap<>((int) (k / 0.75f) + 2);
+    }
+
+    /**
+     * @param k the number of pairs to keep
+     * @return a heap that keeps the {@code k} pairs with the largest keys
+     * @throws IllegalArgumentException if {@code k} is not positive
+     */
+    public static <Key extends Comparable<Key>, V> TopKHeap<Key, V> largest(int k) {
+        return new TopKHeap<>(k, true);
+    }
+
+    /**
+     * @param k the number of pairs to keep
+     * @return a heap that keeps the {@code k} pairs with the smallest keys
+     * @throws IllegalArgumentException if {@code k} is not positive
+     */
+    public static <Key extends Comparable<Key>, V> TopKHeap<Key, V> smallest(int k) {
+        return new TopKHeap<>(k, false);
+    }
+
+    /**
+     * @return the number of pairs currently retained, at most {@link #capacity()}
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the maximum number of pairs retained
+     */
+    public int capacity() {
+        return k;
+    }
+
+    /**
+     * @param value the value to check
+     * @return true if the value is currently among the retained pairs
+     */
+    public boolean containsValue(V value) {
+        return map.containsKey(value);
+    }
+
+    /**
+     * Returns the worst key still retained. Once the heap is full, only pairs with a strictly
+     * better key than this are accepted, so callers can use it to skip work early.
+     *
+     * @return the worst retained key
+     * @throws NoSuchElementException if nothing has been retained
+     */
+    public Key threshold() {
+        if (size == 0) {
+            throw new NoSuchElementException("heap is empty.");
+        }
+        return key(0);
+    }
+
+    /**
+     * Offers a pair from the stream.
+     *
+     * @param key the ranking key, must be non-null
+     * @param value the value
+     * @return true if the pair is now retained
+     * @throws IllegalArgumentException if key is null
+     * @implSpec Once the heap is full, this method rejects a key no better than
+     *           {@link #threshold()} with one comparison and no hashing. Otherwise it runs in
+     *           O(log k).
+     */
+    public boolean offer(Key key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("key is null");
+        }
+        // Once the heap is full, a key no better than the root's is rejected before the value is
+        // hashed. A retained value's key is at least as good as the root's, so such a key could
+        // not improve it either.
+        if (size == k && !better(key, key(0))) {
+            return false;
+        }
+        Integer i = map.get(value);
+        if (i != null) {
+            if (!better(key, key(i))) {
+                return false;
+            }
+            // A better key moves the pair away from the worst end at the root.
+            siftDown(i, key, value);
+            return true;
+        }
+        if (size < k) {
+            size++;
+            siftUp(size - 1, key, value);
+            return true;
+        }
+        map.remove(val(0));
+        siftDown(0, key, value);
+        return true;
+    }
+
+    /**
+     * Removes every retained pair and returns the values from best to worst.
+     *
+     * @return the retained values, best first
+     * @implSpec This method runs in O(k log k) time.
+     */
+    public List<V> drainSorted() {
+        List<V> ans = new ArrayList<>(size);
+        while (size > 0) {
+            V worst = val(0);
+            map.remove(worst);
+            ans.add(worst);
+            size--;
+            Key lastKey = key(size);
+            V lastValue = val(size);
+            keys[size] = null;
+            vals[size] = null;
+            if (size > 0) {
+                siftDown(0, lastKey, lastValue);
+            }
+        }
+        // Pairs come off the root worst first.
+        for (int i = 0, j = ans.size() - 1; i < j; i++, j--) {
+            V tmp = ans.get(i);
+            ans.set(i, ans.get(j));
+            ans.set(j, tmp);
+        }
+        return ans;
+    }
+
+    // Moves a hole at i towards the root past every parent with a better key, then drops
+    // (key, value) into it.
+    private void siftUp(int i, Key key, V value) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!better(key(parent), key)) {
+                break;
+            }
+            keys[i] = keys[parent];
+            vals[i] = vals[parent];
+            map.put(val(i), i);
+            i = parent;
+        }
+        keys[i] = key;
+        vals[i] = value;
+        map.put(value, i);
+    }
+
+    // Moves a hole at i down towards the worse child while that child is worse than key, then
+    // drops (key, value) into it.
+    private void siftDown(int i, Key key, V value) {
+        int half = size / 2;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && better(key(child), key(child + 1))) {
+                child++;
+            }
+            if (!better(key, key(child))) {
+                break;
+            }
+            keys[i] = keys[child];
+            vals[i] = vals[child];
+            map.put(val(i), i);
+            i = child;
+        }
+        keys[i] = key;
+        vals[i] = value;
+        map.put(value, i);
+    }
+
+    private boolean better(Key a, Key b) {
+        return largest ? a.compareTo(b) > 0 : a.compareTo(b) < 0;
+    }
+
+    // The arrays only ever hold Key and V instances, so the unchecked casts are safe.
+    @SuppressWarnings("unchecked")
+    private Key key(int i) {
+        return (Key) keys[i];
+    }
+
+    @SuppressWarnings("unchecked")
+    private V val(int i) {
+        return (V) vals[i];
+    }
+}
@@ -0,0 +1,39 @@
+import java.util.List;
+
+/**
+ * Moves {@link MessageBatch}es between the shards of a {@link PartitionedGraph} in bulk
+ * synchronous supersteps. During a superstep every shard sends batches; {@link #endSuperstep}
+ * is a global barrier after which each shard can {@link #receive} everything sent to it in
+ * that superstep.
+ * <p/>
+ * {@link LoopbackTransport} delivers within one process. A transport between processes sends
+ * the batches with {@link MessageBatch#writeTo}, and every process calls
+ * {@code endSuperstep} once per superstep on behalf of all of its local shards.
+ */
+public interface Transport {
+    /**
+     * Queues a batch for delivery at the end of the current superstep.
+     *
+     * @param toShard the shard to deliver to
+     * @param batch the batch, which the caller must not modify afterwards
+     */
+    void send(int toShard, MessageBatch batch);
+
+    /**
+     * Ends the current superstep on every process.
+     *
+     * @param active whether any local shard still has work, apart from messages it sent
+     * @return true if any shard on any process is still active or any message was sent, so
+     *         that another superstep is needed
+     */
+    boolean endSuperstep(boolean active);
+
+    /**
+     * Returns and clears the batches delivered to a local shard by the last
+     * {@link #endSuperstep}.
+     *
+     * @param shard a shard on this process
+     * @return the delivered batches
+     */
+    List<MessageBatch> receive(int shard);
+}
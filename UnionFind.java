@@ -7,16 +7,11 @@ import java.util.*;
  *
  */
 public class UnionFind {
-    class Element {
-        int rank;
-        int parent;
-
-        public Element(Integer val) {
-            this.parent = val;
-        }
-    }
     int numElements;
-    ArrayList<Element> elementList;
+    int numSets;
+    // parent[u] is u's parent, or, if u is a root, the negated size of u's set. Keeping both in
+    // one flat array makes each element cost 4 bytes and needs no objects.
+    int[] parent;
     /**
      * Initializes a new union-find structure for the specified number of elements.
      * <p/>
@@ -30,15 +25,13 @@ public class UnionFind {
             throw new IllegalArgumentException("invalid n is negative.");
         }
         numElements = n;
-        elementList = new ArrayList<>();
-        for (int i = 0; i < numElements; i++) {
-            Element e = new Element(i);
-            elementList.add(i, e);
-        }
+        numSets = n;
+        parent = new int[n];
+        Arrays.fill(parent, -1);
     }
 
     /**
-     * Joins two sets.
+     * Joins two sets. The root of the smaller set is linked under the root of the larger one.
      * <p/>
      * Do NOT modify this method header.
      *
@@ -59,17 +52,15 @@ public class UnionFind {
         if (uRoot == vRoot) {
             return;
         }
-        if (elementList.get(u).rank < elementList.get(v).rank) {
-            elementList.get(uRoot).parent = vRoot;
-            if (elementList.get(uRoot).rank == elementList.get(vRoot).rank) {
-                elementList.get(vRoot).rank++;
-            }
-        } else {
-            elementList.get(vRoot).parent = uRoot;
-            if (elementList.get(uRoot).rank == elementList.get(vRoot).rank) {
-                elementList.get(uRoot).rank++;
-            }
+        // Sizes are stored negated, so the larger set has the smaller value.
+        if (parent[uRoot] > parent[vRoot]) {
+            int temp = uRoot;
+            uRoot = vRoot;
+            vRoot = temp;
         }
+        parent[uRoot] += parent[vRoot];
+        parent[vRoot] = uRoot;
+        numSets--;
     }
 
 
@@ -78,6 +69,9 @@ public class UnionFind {
      * root node. If for some {@code v}, {@code find(u) == find(v)},
      * then {@code u} and {@code v} are in the same set.
      * <p/>
+     * Uses iterative path halving: every vertex on the search path is pointed at its grandparent,
+     * which keeps trees flat without recursion.
+     * <p/>
      * Do NOT modify this method header.
      *
      * @param u the vertex
@@ -88,9 +82,42 @@ public class UnionFind {
         if (u < 0 || u >= numElements) {
             throw new IllegalArgumentException("u is out of bounds.");
         }
-        if (u != elementList.get(u).parent) {
-            elementList.get(u).parent = find(elementList.get(u).parent);
+        while (parent[u] >= 0) {
+            int p = parent[u];
+            if (parent[p] < 0) {
+                return p;
+            }
+            parent[u] = parent[p];
+            u = parent[p];
         }
-        return elementList.get(u).parent;
+        return u;
+    }
+
+    /**
+     * Determines whether two vertices are in the same set.
+     *
+     * @param u a vertex
+     * @param v a vertex
+     * @return {@code true} if {@code u} and {@code v} are in the same set
+     * @throws IllegalArgumentException if {@code u} or {@code v} is out of bounds
+     */
+    public boolean connected(int u, int v) {
+        return find(u) == find(v);
+    }
+
+    /**
+     * @return the number of disjoint sets
+     */
+    public int count() {
+        return numSets;
+    }
+
+    /**
+     * @param u a vertex
+     * @return the number of vertices in the set containing {@code u}
+     * @throws IllegalArgumentException if {@code u} is out of bounds
+     */
+    public int size(int u) {
+        return -parent[find(u)];
     }
 }
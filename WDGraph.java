@@ -1,4 +1,5 @@
 import java.util.*;
+import java.util.function.IntConsumer;
 
 /**
  * Type for a simple, weighted directed graph. By convention, the n vertices will be labeled
@@ -179,4 +180,148 @@ public class WDGraph {
         return ans;
     }
 
+    /**
+     * @param v the vertex
+     * @return the number of out-neighbors of {@code v}
+     * @throws IllegalArgumentException if the specified vertex does not exist
+     * @implSpec This method should run in O(1) time.
+     */
+    public int outDegree(int v) {
+        checkVertex(v);
+        return adjOutListArr[v].size();
+    }
+
+    /**
+     * @param v the vertex
+     * @return the number of in-neighbors of {@code v}
+     * @throws IllegalArgumentException if the specified vertex does not exist
+     * @implSpec This method should run in O(1) time.
+     */
+    public int inDegree(int v) {
+        checkVertex(v);
+        return adjInListArr[v].size();
+    }
+
+    /**
+     * Calls {@code action} with every out-neighbor of the specified vertex, without building a
+     * set.
+     *
+     * @param v the vertex
+     * @param action the action to run for each out-neighbor
+     * @throws IllegalArgumentException if the specified vertex does not exist
+     * @implSpec This method should run in O(outdeg(v)) time.
+     */
+    public void forEachOutNeighbor(int v, IntConsumer action) {
+        checkVertex(v);
+        List<Edge> edges = adjOutListArr[v];
+        for (int i = 0; i < edges.size(); i++) {
+            action.accept(edges.get(i).neighbor);
+        }
+    }
+
+    /**
+     * Calls {@code action} with every in-neighbor of the specified vertex, without building a
+     * set.
+     *
+     * @param v the vertex
+     * @param action the action to run for each in-neighbor
+     * @throws IllegalArgumentException if the specified vertex does not exist
+     * @implSpec This method should run in O(indeg(v)) time.
+     */
+    public void forEachInNeighbor(int v, IntConsumer action) {
+        checkVertex(v);
+        List<Edge> edges = adjInListArr[v];
+        for (int i = 0; i < edges.size(); i++) {
+            action.accept(edges.get(i).neighbor);
+        }
+    }
+
+    /**
+     * Calls {@code action} with the target and weight of every out-edge of the specified vertex,
+     * so callers that need weights do not have to look each one up with {@link #getWeight}.
+     *
+     * @param v the vertex
+     * @param action the action to run for each out-edge
+     * @throws IllegalArgumentException if the specified vertex does not exist
+     * @implSpec This method should run in O(outdeg(v)) time.
+     */
+    public void forEachOutEdge(int v, EdgeConsumer action) {
+        checkVertex(v);
+        List<Edge> edges = adjOutListArr[v];
+        for (int i = 0; i < edges.size(); i++) {
+            Edge x = edges.get(i);
+            action.accept(x.neighbor, x.weight);
+        }
+    }
+
+    /**
+     * Calls {@code action} with the source and weight of every in-edge of the specified vertex.
+     *
+     * @param v the vertex
+     * @param action the action to run for each in-edge
+     * @throws IllegalArgumentException if the specified vertex does not exist
+     * @implSpec This method should run in O(indeg(v)) time.
+     */
+    public void forEachInEdge(int v, EdgeConsumer action) {
+        checkVertex(v);
+        List<Edge> edges = adjInListArr[v];
+        for (int i = 0; i < edges.size(); i++) {
+            Edge x = edges.get(i);
+            action.accept(x.neighbor, x.weight);
+        }
+    }
+
+    /**
+     * Returns an iterator over the out-neighbors of the specified vertex that yields primitive
+     * ints. The graph must not be modified while the iterator is in use.
+     *
+     * @param v the vertex
+     * @return an iterator over the out-neighbors of {@code v}
+     * @throws IllegalArgumentException if the specified vertex does not exist
+     */
+    public PrimitiveIterator.OfInt outNeighborIterator(int v) {
+        checkVertex(v);
+        return new NeighborIterator(adjOutListArr[v]);
+    }
+
+    /**
+     * Returns an iterator over the in-neighbors of the specified vertex that yields primitive
+     * ints. The graph must not be modified while the iterator is in use.
+     *
+     * @param v the vertex
+     * @return an iterator over the in-neighbors of {@code v}
+     * @throws IllegalArgumentException if the specified vertex does not exist
+     */
+    public PrimitiveIterator.OfInt inNeighborIterator(int v) {
+        checkVertex(v);
+        return new NeighborIterator(adjInListArr[v]);
+    }
+
+    private void checkVertex(int v) {
+        if (v >= numVert || v < 0) {
+            throw new IllegalArgumentException("vertex v does not exist.");
+        }
+    }
+
+    private static final class NeighborIterator implements PrimitiveIterator.OfInt {
+        private final List<Edge> edges;
+        private int i;
+
+        NeighborIterator(List<Edge> edges) {
+            this.edges = edges;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return i < edges.size();
+        }
+
+        @Override
+        public int nextInt() {
+            if (i >= edges.size()) {
+                throw new NoSuchElementException();
+            }
+            return edges.get(i++).neighbor;
+        }
+    }
 }
@@ -32,12 +32,31 @@ public final class WidestPath {
         if (src < 0 || src >= g.getSize() || tgt < 0 || tgt >= g.getSize()) {
             throw new IllegalArgumentException("src or tgt are not in the graph.");
         }
-        for (int i = 0; i < g.adjListArr.length; i++) {
-            for (Graph.UndirectedEdge e: g.adjListArr[i]) {
-                e.weight = 0 - e.weight;
-            }
-        }
+        g.negateWeights();
         Graph maxSpanning = Kruskal.getMST(g);
         return BFS.getShortestPath(maxSpanning, src, tgt);
     }
+
+    /**
+     * Computes a widest path in a graph whose vertices were relabeled with
+     * {@link VertexOrdering#apply(Graph)}. The search runs on the permuted graph, but
+     * {@code src}, {@code tgt} and the returned path use the original vertex ids.
+     *
+     * @param g the permuted graph
+     * @param order the ordering that produced {@code g}
+     * @param src the original id of the vertex from which to start the search
+     * @param tgt the original id of the vertex to find via {@code src}
+     * @return an ordered list of original vertex ids on a widest path from {@code src} to
+     *         {@code tgt}, as in {@link #getWidestPath(Graph, int, int)}
+     * @throws IllegalArgumentException if {@code src} or {@code tgt} is not in the graph
+     * @throws IllegalArgumentException if the specified graph or ordering is null, or they have
+     *                                  different sizes
+     */
+    public static List<Integer> getWidestPath(Graph g, VertexOrdering order, int src, int tgt) {
+        BFS.checkOrdering(g == null ? -1 : g.getSize(), order);
+        if (src < 0 || src >= g.getSize() || tgt < 0 || tgt >= g.getSize()) {
+            throw new IllegalArgumentException("src or tgt are not in the graph.");
+        }
+        return order.toOldIds(getWidestPath(g, order.newIds[src], order.newIds[tgt]));
+    }
 }
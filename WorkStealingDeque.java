@@ -0,0 +1,146 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A Chase-Lev work-stealing deque. The owning thread pushes and pops elements at the bottom, like
+ * a stack, while any number of other threads steal elements from the top. The owner only
+ * contends with thieves when a single element is left, so a worker's own push/pop path is almost
+ * always free of compare-and-swap operations. The circular array grows when it is full and never
+ * shrinks.
+ * <p/>
+ * Only the owner may call {@link #push} and {@link #pop}. Null elements are not allowed.
+ *
+ * @param <E> the type of the elements in the deque
+ */
+public class WorkStealingDeque<E> {
+    private static final int DEFAULT_CAPACITY = 32;
+
+    // top is only ever incremented, by a successful steal or by the owner taking the last element.
+    private final AtomicLong top;
+    private volatile long bottom;
+    private volatile Object[] arr;
+
+    public WorkStealingDeque() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param initialCapacity the number of elements to hold before the first resize
+     * @throws IllegalArgumentException if {@code initialCapacity} is not positive
+     */
+    public WorkStealingDeque(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("initialCapacity is not positive");
+        }
+        int capacity = 1;
+        while (capacity < initialCapacity) {
+            capacity <<= 1;
+        }
+        top = new AtomicLong();
+        arr = new Object[capacity];
+    }
+
+    /**
+     * Returns the number of elements in the deque. If other threads are stealing, this is only a
+     * snapshot.
+     *
+     * @return the number of elements in the deque
+     */
+    public int size() {
+        long b = bottom;
+        long t = top.get();
+        return (int) Math.max(0, b - t);
+    }
+
+    /**
+     * @return true if the deque appeared empty at some point during the call
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Pushes an element onto the bottom of the deque. Owner only.
+     *
+     * @param e the element to add
+     * @throws IllegalArgumentException if e is null
+     */
+    public void push(E e) {
+        if (e == null) {
+            throw new IllegalArgumentException("element is null");
+        }
+        long b = bottom;
+        long t = top.get();
+        Object[] a = arr;
+        if (b - t >= a.length) {
+            a = grow(a, b, t);
+        }
+        a[(int) b & (a.length - 1)] = e;
+        // The volatile write publishes the element to thieves.
+        bottom = b + 1;
+    }
+
+    /**
+     * Removes the most recently pushed element. Owner only.
+     *
+     * @return the element at the bottom of the deque, or null if it is empty
+     */
+    public E pop() {
+        long b = bottom - 1;
+        Object[] a = arr;
+        // Volatile write followed by volatile read: a thief either sees the smaller bottom or we
+        // see its increment of top.
+        bottom = b;
+        long t = top.get();
+        if (t > b) {
+            bottom = b + 1;
+            return null;
+        }
+        E ans = elementAt(a, b);
+        if (t == b) {
+            // Last element: race the thieves for it.
+            if (!top.compareAndSet(t, t + 1)) {
+                ans = null;
+            }
+            bottom = b + 1;
+        }
+        return ans;
+    }
+
+    /**
+     * Removes the oldest element. Safe to call from any thread.
+     *
+     * @return the element at the top of the deque, or null if the deque is empty or another
+     *         thread took the element first
+     */
+    public E steal() {
+        long t = top.get();
+        long b = bottom;
+        if (t >= b) {
+            return null;
+        }
+        Object[] a = arr;
+        E ans = elementAt(a, t);
+        if (!top.compareAndSet(t, t + 1)) {
+            return null;
+        }
+        return ans;
+    }
+
+    // Reads the slot of logical index i. Only elements of type E are ever stored, so the
+    // unchecked cast is safe.
+    @SuppressWarnings("unchecked")
+    private E elementAt(Object[] a, long i) {
+        return (E) a[(int) i & (a.length - 1)];
+    }
+
+    // Copies the live range [t, b) into an array twice the size; indices stay the same so
+    // concurrent thieves holding the old array still read valid elements.
+    private Object[] grow(Object[] a, long b, long t) {
+        Object[] temp = new Object[a.length * 2];
+        for (long i = t; i < b; i++) {
+            temp[(int) i & (temp.length - 1)] = a[(int) i & (a.length - 1)];
+        }
+        arr = temp;
+        return temp;
+    }
+}
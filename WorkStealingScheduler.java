@@ -0,0 +1,180 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A small fork-join style scheduler with one {@link WorkStealingDeque} per worker thread. A task
+ * may spawn more tasks, which go onto the spawning worker's own deque; a worker that runs out of
+ * work steals from a randomly chosen victim. This keeps traversals such as DFS/BFS over
+ * {@link Graph} and {@link WDGraph} local to a worker until there is imbalance, without a central
+ * locked queue.
+ * <p/>
+ * {@link #run} returns once every task, including every spawned task, has been processed.
+ */
+public class WorkStealingScheduler {
+
+    /**
+     * Processes a single task.
+     *
+     * @param <T> the type of the tasks
+     */
+    public interface TaskHandler<T> {
+        /**
+         * @param task the task to process
+         * @param spawner used to submit follow-up tasks
+         */
+        void process(T task, Spawner<T> spawner);
+    }
+
+    /**
+     * Submits follow-up tasks from inside {@link TaskHandler#process}.
+     *
+     * @param <T> the type of the tasks
+     */
+    public interface Spawner<T> {
+        /**
+         * @param task the task to add to the current worker's deque, must be non-null
+         */
+        void spawn(T task);
+    }
+
+    private final int parallelism;
+
+    /**
+     * @param parallelism the number of worker threads
+     * @throws IllegalArgumentException if {@code parallelism} is not positive
+     */
+    public WorkStealingScheduler(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism is not positive");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @return the number of worker threads
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Runs the initial tasks and everything they spawn to completion.
+     *
+     * @param initial the initial tasks, spread round-robin over the workers
+     * @param handler the code run for every task
+     * @throws IllegalArgumentException if initial or handler is null
+     * @throws RuntimeException if a task throws; the first exception is rethrown (wrapped if
+     *         checked) after all workers have stopped
+     */
+    public <T> void run(Iterable<T> initial, TaskHandler<T> handler) {
+        if (initial == null || handler == null) {
+            throw new IllegalArgumentException("initial or handler is null");
+        }
+        List<WorkStealingDeque<T>> deques = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            deques.add(new WorkStealingDeque<>());
+        }
+        // Tasks that have been submitted but not yet finished. Spawning increments it before the
+        // parent finishes, so it only reaches 0 when no work is left anywhere.
+        AtomicLong pending = new AtomicLong();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        int next = 0;
+        for (T task : initial) {
+            pending.incrementAndGet();
+            deques.get(next).push(task);
+            next = (next + 1) % parallelism;
+        }
+
+        Thread[] threads = new Thread[parallelism];
+        for (int i = 0; i < parallelism; i++) {
+            Worker<T> w = new Worker<>(i, deques, pending, failure, handler);
+            threads[i] = new Thread(w, "work-stealing-worker-" + i);
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            boolean interrupted = false;
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    failure.compareAndSet(null, e);
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Throwable t = failure.get();
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        } else if (t instanceof Error) {
+            throw (Error) t;
+        } else if (t != null) {
+            throw new RuntimeException(t);
+        }
+    }
+
+    private static final class Worker<T> implements Runnable, Spawner<T> {
+        private final int id;
+        private final List<WorkStealingDeque<T>> deques;
+        private final AtomicLong pending;
+        private final AtomicReference<Throwable> failure;
+        private final TaskHandler<T> handler;
+
+        Worker(int id, List<WorkStealingDeque<T>> deques, AtomicLong pending,
+               AtomicReference<Throwable> failure, TaskHandler<T> handler) {
+            this.id = id;
+            this.deques = deques;
+            this.pending = pending;
+            this.failure = failure;
+            this.handler = handler;
+        }
+
+        @Override
+        public void spawn(T task) {
+            pending.incrementAndGet();
+            deques.get(id).push(task);
+        }
+
+        @Override
+        public void run() {
+            while (pending.get() > 0 && failure.get() == null) {
+                T task = deques.get(id).pop();
+                if (task == null) {
+                    task = stealOnce();
+                }
+                if (task == null) {
+                    Thread.yield();
+                    continue;
+                }
+                try {
+                    handler.process(task, this);
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                } finally {
+                    pending.decrementAndGet();
+                }
+            }
+        }
+
+        // Tries every other worker once, starting at a random victim.
+        private T stealOnce() {
+            int n = deques.size();
+            int start = ThreadLocalRandom.current().nextInt(n);
+            for (int k = 0; k < n; k++) {
+                int victim = (start + k) % n;
+                if (victim != id) {
+                    T task = deques.get(victim).steal();
+                    if (task != null) {
+                        return task;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+}